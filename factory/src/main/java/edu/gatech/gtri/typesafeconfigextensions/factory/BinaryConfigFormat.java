@@ -0,0 +1,644 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import edu.gatech.gtri.typesafeconfigextensions.internal.ConfigTreeBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * A compact binary encoding of a resolved {@link Config}, which can be
+ * decoded much faster than HOCON can be parsed.
+ *
+ * <p>Files in this format are conventionally named with the
+ * {@value #EXTENSION} extension, which
+ * {@link ConfigFactory#configFile()} sources recognize.</p>
+ *
+ * <p>An encoded {@link Config} consists of a header, a dictionary of all
+ * of the object keys, optionally a dictionary of origin descriptions, and
+ * finally the tree of values. Each value is tagged with its type, and
+ * numbers are stored in binary. Decoding reads the file through a
+ * {@link MappedByteBuffer}.</p>
+ *
+ * <p>Origins are only kept if the {@link Config} was written
+ * {@link #writeWithOrigins(Config, Path) with origins}, and then only the
+ * origins' {@link com.typesafe.config.ConfigOrigin#description()
+ * descriptions} are kept; elements of a list share the list's origin.
+ * Otherwise every value's origin is the file. Decoding with origins
+ * builds the tree one value at a time, and is no faster than parsing; it
+ * is meant for diagnostics.</p>
+ *
+ * <p>Numbers are stored as their values, not their original text, so a
+ * number written as {@code 1.50} or {@code 1e3} is read back as
+ * {@code 1.5} or {@code 1000.0} by {@link Config#getString(String)}.</p>
+ */
+public final class BinaryConfigFormat {
+
+    private BinaryConfigFormat() { }
+
+    /**
+     * The file extension of binary config files.
+     */
+    public static final String EXTENSION = ".bconf";
+
+    private static final int MAGIC = 0x42434f4e; // "BCON"
+    private static final int VERSION = 1;
+
+    private static final byte WITH_ORIGINS = 1;
+
+    private static final byte OBJECT = 1;
+    private static final byte LIST = 2;
+    private static final byte STRING = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte NULL = 6;
+    private static final byte INT = 7;
+    private static final byte LONG = 8;
+    private static final byte DOUBLE = 9;
+
+    /**
+     * Whether {@code path} names a binary config file, judging by its
+     * extension.
+     */
+    public static boolean isBinaryConfigFile(Path path) {
+        return String.valueOf(checkNotNull(path).getFileName())
+            .endsWith(EXTENSION);
+    }
+
+    /**
+     * Whether every number in {@code value} is written the way Java would
+     * print it, so that its {@link Config#getString(String) text} is the
+     * same after it has been written and read back; {@code 1.50} and
+     * {@code 1e3} aren't.
+     */
+    static boolean keepsNumberText(ConfigValue value) {
+
+        switch (value.valueType()) {
+
+            case OBJECT:
+
+                for (ConfigValue child : ((ConfigObject) value).values()) {
+                    if (!keepsNumberText(child)) {
+                        return false;
+                    }
+                }
+
+                return true;
+
+            case LIST:
+
+                for (ConfigValue element : (ConfigList) value) {
+                    if (!keepsNumberText(element)) {
+                        return false;
+                    }
+                }
+
+                return true;
+
+            case NUMBER:
+
+                // Only getString gives the original text, not render().
+                return value.atKey("n").getString("n")
+                    .equals(String.valueOf(value.unwrapped()));
+
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Encodes {@code config}, without its origins, to {@code file}.
+     *
+     * <p>{@code config} must be {@link Config#resolve() resolved}.</p>
+     *
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(Config config, Path file) throws IOException {
+        write(config, file, false);
+    }
+
+    /**
+     * Encodes {@code config}, including the description of each value's
+     * origin, to {@code file}.
+     *
+     * <p>{@code config} must be {@link Config#resolve() resolved}.</p>
+     *
+     * @throws IOException if the file can't be written.
+     */
+    public static void writeWithOrigins(Config config, Path file)
+    throws IOException {
+
+        write(config, file, true);
+    }
+
+    private static void write(
+        Config config,
+        Path file,
+        boolean withOrigins
+    ) throws IOException {
+
+        checkNotNull(config);
+        checkNotNull(file);
+
+        Encoder encoder = new Encoder(withOrigins);
+        encoder.collect(config.root());
+
+        try (OutputStream out = new BufferedOutputStream(
+                Files.newOutputStream(file))) {
+
+            encoder.write(config.root(), new DataOutputStream(out));
+        }
+    }
+
+    /**
+     * Decodes the {@link Config} in {@code file}.
+     *
+     * @throws IllegalArgumentException
+     *   if {@code file} is not in this format, or is corrupt.
+     * @throws IOException if the file can't be read.
+     */
+    public static Config read(Path file) throws IOException {
+        return read(file, checkNotNull(file).toString());
+    }
+
+    /**
+     * @param description The origin description of values which don't
+     *   have their own.
+     */
+    static Config read(Path file, String description) throws IOException {
+
+        checkNotNull(file);
+        checkNotNull(description);
+
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel =
+                FileChannel.open(file, StandardOpenOption.READ)) {
+
+            buffer = channel.map(
+                FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        return read(buffer, description);
+    }
+
+    /**
+     * @param description The origin description of values which don't
+     *   have their own.
+     */
+    static Config read(ByteBuffer buffer, String description) {
+
+        checkNotNull(buffer);
+        checkNotNull(description);
+
+        try {
+            return new Decoder(buffer, description).readConfig();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // A corrupt file can fail in any number of ways (a buffer
+            // underflow, a bad index or length).
+            throw notBinaryConfig(description, e);
+        }
+    }
+
+    private static IllegalArgumentException notBinaryConfig(
+        String description,
+        Exception cause
+    ) {
+        return new IllegalArgumentException(
+            String.format("%s is not a binary config", description),
+            cause
+        );
+    }
+
+    private static final class Encoder {
+
+        private final boolean withOrigins;
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+        private final Map<String, Integer> origins = new LinkedHashMap<>();
+
+        private Encoder(boolean withOrigins) {
+            this.withOrigins = withOrigins;
+        }
+
+        /**
+         * Adds the keys and origins in {@code value} to the dictionaries.
+         */
+        private void collect(ConfigValue value) {
+
+            if (withOrigins) {
+                index(origins, value.origin().description());
+            }
+
+            switch (value.valueType()) {
+
+                case OBJECT:
+
+                    for (Map.Entry<String, ConfigValue> entry
+                            : ((ConfigObject) value).entrySet()) {
+
+                        index(keys, entry.getKey());
+                        collect(entry.getValue());
+                    }
+
+                    break;
+
+                case LIST:
+
+                    for (ConfigValue element : (ConfigList) value) {
+                        collect(element);
+                    }
+
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        private static int index(Map<String, Integer> dictionary, String s) {
+
+            Integer index = dictionary.get(s);
+
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put(s, index);
+            }
+
+            return index;
+        }
+
+        private void write(ConfigValue root, DataOutputStream out)
+        throws IOException {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            int flags = 0;
+
+            if (withOrigins) {
+                flags |= WITH_ORIGINS;
+            }
+
+            out.writeByte(flags);
+
+            writeDictionary(keys, out);
+
+            if (withOrigins) {
+                writeDictionary(origins, out);
+            }
+
+            writeValue(root, out);
+
+            out.flush();
+        }
+
+        private static void writeDictionary(
+            Map<String, Integer> dictionary,
+            DataOutputStream out
+        ) throws IOException {
+
+            out.writeInt(dictionary.size());
+
+            for (String s : dictionary.keySet()) {
+                writeString(s, out);
+            }
+        }
+
+        private static void writeString(String s, DataOutputStream out)
+        throws IOException {
+
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeValue(ConfigValue value, DataOutputStream out)
+        throws IOException {
+
+            switch (value.valueType()) {
+
+                case OBJECT:
+
+                    // Sorted, so that equal Configs are written identically.
+                    Map<String, ConfigValue> entries =
+                        new TreeMap<>((ConfigObject) value);
+
+                    writeTag(OBJECT, value, out);
+                    out.writeInt(entries.size());
+
+                    for (Map.Entry<String, ConfigValue> entry
+                            : entries.entrySet()) {
+
+                        out.writeInt(keys.get(entry.getKey()));
+                        writeValue(entry.getValue(), out);
+                    }
+
+                    break;
+
+                case LIST:
+
+                    ConfigList list = (ConfigList) value;
+
+                    writeTag(LIST, value, out);
+                    out.writeInt(list.size());
+
+                    for (ConfigValue element : list) {
+                        writeValue(element, out);
+                    }
+
+                    break;
+
+                case STRING:
+                    writeTag(STRING, value, out);
+                    writeString((String) value.unwrapped(), out);
+                    break;
+
+                case BOOLEAN:
+
+                    if ((Boolean) value.unwrapped()) {
+                        writeTag(TRUE, value, out);
+                    } else {
+                        writeTag(FALSE, value, out);
+                    }
+
+                    break;
+
+                case NUMBER:
+                    writeNumber(value, out);
+                    break;
+
+                default:
+                    writeTag(NULL, value, out);
+                    break;
+            }
+        }
+
+        private void writeNumber(ConfigValue value, DataOutputStream out)
+        throws IOException {
+
+            Object number = value.unwrapped();
+
+            if (number instanceof Integer) {
+                writeTag(INT, value, out);
+                out.writeInt((Integer) number);
+            } else if (number instanceof Long) {
+                writeTag(LONG, value, out);
+                out.writeLong((Long) number);
+            } else {
+                writeTag(DOUBLE, value, out);
+                out.writeDouble(((Number) number).doubleValue());
+            }
+        }
+
+        private void writeTag(
+            byte tag,
+            ConfigValue value,
+            DataOutputStream out
+        ) throws IOException {
+
+            out.writeByte(tag);
+
+            if (withOrigins) {
+                out.writeInt(origins.get(value.origin().description()));
+            }
+        }
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final String description;
+
+        private boolean withOrigins;
+        private String[] keys;
+        private String[] origins;
+
+        private Decoder(ByteBuffer buffer, String description) {
+            this.buffer = buffer;
+            this.description = description;
+        }
+
+        private Config readConfig() {
+
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+
+            if (magic != MAGIC || version != VERSION) {
+                throw notBinaryConfig(description, null);
+            }
+
+            byte flags = buffer.get();
+            withOrigins = (flags & WITH_ORIGINS) != 0;
+            keys = readDictionary();
+
+            if (withOrigins) {
+                origins = readDictionary();
+            }
+
+            if (!withOrigins) {
+
+                // Without origins, the whole tree can be built at once.
+                Object root = readUnwrapped();
+
+                if (!(root instanceof Map)) {
+                    throw notBinaryConfig(description, null);
+                }
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) root;
+
+                return ConfigValueFactory.fromMap(map, description)
+                    .toConfig();
+            }
+
+            ConfigValue root = readValue();
+
+            if (!(root instanceof ConfigObject)) {
+                throw notBinaryConfig(description, null);
+            }
+
+            return ((ConfigObject) root).toConfig();
+        }
+
+        private String[] readDictionary() {
+
+            String[] dictionary = new String[readLength()];
+
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString();
+            }
+
+            return dictionary;
+        }
+
+        private String readString() {
+
+            byte[] bytes = new byte[readLength()];
+            buffer.get(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * The length of a string, dictionary, object or list, each of
+         * whose elements takes up at least one byte, so that a corrupt
+         * length is found out before anything is allocated for it.
+         */
+        private int readLength() {
+
+            int length = buffer.getInt();
+
+            if (length < 0 || length > buffer.remaining()) {
+                throw notBinaryConfig(description, null);
+            }
+
+            return length;
+        }
+
+        private String readOrigin() {
+
+            if (withOrigins) {
+                return origins[buffer.getInt()];
+            }
+
+            return description;
+        }
+
+        /**
+         * Reads a value (skipping its origin, if any) as a plain Java
+         * object of the kind {@link ConfigValueFactory} accepts.
+         */
+        private Object readUnwrapped() {
+
+            byte tag = buffer.get();
+            readOrigin();
+
+            switch (tag) {
+
+                case OBJECT:
+
+                    int size = readLength();
+                    Map<String, Object> map = new HashMap<>(
+                        capacityFor(size));
+
+                    for (int i = 0; i < size; i++) {
+                        String key = keys[buffer.getInt()];
+                        map.put(key, readUnwrapped());
+                    }
+
+                    return map;
+
+                case LIST:
+
+                    int length = readLength();
+                    List<Object> list = new ArrayList<>(length);
+
+                    for (int i = 0; i < length; i++) {
+                        list.add(readUnwrapped());
+                    }
+
+                    return list;
+
+                default:
+                    return readScalar(tag);
+            }
+        }
+
+        /**
+         * Reads a value along with its origin.
+         */
+        private ConfigValue readValue() {
+
+            int position = buffer.position();
+            byte tag = buffer.get();
+            String origin = readOrigin();
+
+            switch (tag) {
+
+                case OBJECT:
+
+                    int size = readLength();
+                    ConfigTreeBuilder object = new ConfigTreeBuilder(
+                        ConfigValueFactory.fromMap(
+                            Collections.<String, Object>emptyMap(), origin));
+
+                    for (int i = 0; i < size; i++) {
+                        String key = keys[buffer.getInt()];
+                        object.put(ConfigUtil.joinPath(key), readValue());
+                    }
+
+                    return object.build();
+
+                case LIST:
+
+                    buffer.position(position);
+
+                    return ConfigValueFactory.fromIterable(
+                        (List<?>) readUnwrapped(), origin);
+
+                default:
+                    return ConfigValueFactory.fromAnyRef(
+                        readScalar(tag), origin);
+            }
+        }
+
+        private Object readScalar(byte tag) {
+
+            switch (tag) {
+                case STRING: return readString();
+                case TRUE: return Boolean.TRUE;
+                case FALSE: return Boolean.FALSE;
+                case NULL: return null;
+                case INT: return buffer.getInt();
+                case LONG: return buffer.getLong();
+                case DOUBLE: return buffer.getDouble();
+                default: throw notBinaryConfig(description, null);
+            }
+        }
+
+        private static int capacityFor(int size) {
+            return size + size / 2 + 1;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * An index of the config resources ({@code .conf}, {@code .json} and
+ * {@code .properties}) in the jars on a {@link ClassLoader}'s classpath,
+ * so that they can be found without asking every jar for them on every
+ * {@link ClassLoader#getResources(String) lookup}.
+ *
+ * <p>The index is built the first time it is needed for a class loader,
+ * and rebuilt if the class loader's URLs change or any of the jars'
+ * modification times or sizes change. Directories on the classpath are
+ * not indexed; they are checked on each lookup.</p>
+ *
+ * <p>Only class loaders whose resource lookup is known to work like
+ * {@link URLClassLoader}'s (parent first, then each URL in order,
+ * following jar manifests' {@code Class-Path} attributes) are indexed,
+ * and only if every loader above them is either one too or one of the
+ * JDK's own. For any other class loader, such as a servlet container's
+ * webapp class loader (which overrides
+ * {@link ClassLoader#getResources(String)}) or, from Java 9, the system
+ * class loader, {@link #indexed(ClassLoader)} returns the class loader
+ * itself, and resources are found through it as usual.</p>
+ */
+final class ClasspathIndex {
+
+    private static final Map<ClassLoader, ClasspathIndex> INDEXES =
+        new WeakHashMap<>();
+
+    private static final ClasspathIndex UNINDEXABLE =
+        new ClasspathIndex(Collections.<URL>emptyList(),
+            Collections.<Root>emptyList());
+
+    private final List<URL> urls;
+    private final List<Root> roots;
+
+    private ClasspathIndex(List<URL> urls, List<Root> roots) {
+        this.urls = urls;
+        this.roots = roots;
+    }
+
+    /**
+     * A class loader which finds config resources by looking them up in
+     * {@code loader}'s index, and otherwise behaves exactly like
+     * {@code loader}; or {@code loader} itself, if it can't be indexed.
+     */
+    static ClassLoader indexed(ClassLoader loader) {
+
+        checkNotNull(loader);
+
+        ClasspathIndex index = indexFor(loader);
+
+        if (index == UNINDEXABLE) {
+            return loader;
+        }
+
+        return new IndexedClassLoader(loader, index);
+    }
+
+    private static ClasspathIndex indexFor(ClassLoader loader) {
+
+        List<URL> urls = classpath(loader);
+
+        if (urls == null) {
+            return UNINDEXABLE;
+        }
+
+        synchronized (INDEXES) {
+
+            ClasspathIndex index = INDEXES.get(loader);
+
+            if (index != null && index.isCurrent(urls)) {
+                return index;
+            }
+        }
+
+        ClasspathIndex index = build(urls);
+
+        synchronized (INDEXES) {
+            INDEXES.put(loader, index);
+        }
+
+        return index;
+    }
+
+    private boolean isCurrent(List<URL> currentUrls) {
+
+        if (this == UNINDEXABLE || !urls.equals(currentUrls)) {
+            return false;
+        }
+
+        for (Root root : roots) {
+            if (!root.isCurrent()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The URLs searched by {@code loader}, in order, not including jars
+     * named by manifests; or {@code null} if they can't be determined.
+     */
+    private static List<URL> classpath(ClassLoader loader) {
+
+        Set<ClassLoader> platformLoaders = new HashSet<>();
+
+        for (ClassLoader l = ClassLoader.getSystemClassLoader().getParent();
+                l != null; l = l.getParent()) {
+            platformLoaders.add(l);
+        }
+
+        List<ClassLoader> chain = new ArrayList<>();
+
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            chain.add(0, l);
+        }
+
+        List<URL> urls = new ArrayList<>();
+
+        for (ClassLoader l : chain) {
+
+            if (l instanceof URLClassLoader
+                    && hasStandardResourceLookup(l)) {
+
+                urls.addAll(Arrays.asList(((URLClassLoader) l).getURLs()));
+
+            } else if (!platformLoaders.contains(l)) {
+                // The JDK's own loaders above the system class loader have
+                // no config resources; any other loader (including a
+                // system class loader that isn't a URLClassLoader, whose
+                // classpath may include the module path or jars added by
+                // agents) might find resources in its own way.
+                return null;
+            }
+        }
+
+        return urls;
+    }
+
+    private static boolean hasStandardResourceLookup(ClassLoader loader) {
+
+        try {
+
+            Method getResources =
+                loader.getClass().getMethod("getResources", String.class);
+
+            Method findResources = findMethod(
+                loader.getClass(), "findResources", String.class);
+
+            return getResources.getDeclaringClass() == ClassLoader.class
+                && findResources != null
+                && findResources.getDeclaringClass() == URLClassLoader.class;
+
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Method findMethod(
+        Class<?> type,
+        String name,
+        Class<?> parameterType
+    ) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+
+            try {
+                return c.getDeclaredMethod(name, parameterType);
+            } catch (NoSuchMethodException ignored) {
+                continue;
+            }
+        }
+
+        return null;
+    }
+
+    private static ClasspathIndex build(List<URL> urls) {
+
+        List<Root> roots = new ArrayList<>();
+
+        try {
+
+            Set<String> seen = new HashSet<>();
+
+            for (URL url : urls) {
+                addRoot(url, roots, seen);
+            }
+
+        } catch (IOException | URISyntaxException e) {
+            return UNINDEXABLE;
+        }
+
+        return new ClasspathIndex(
+            Collections.unmodifiableList(new ArrayList<>(urls)),
+            Collections.unmodifiableList(roots)
+        );
+    }
+
+    /**
+     * Adds the root at {@code url}, followed by the jars named by its
+     * manifest, as {@link URLClassLoader} would search them: skipping
+     * URLs it has already seen, but not other URLs of the same file.
+     *
+     * @param seen The URLs seen so far, without their fragments.
+     */
+    private static void addRoot(URL url, List<Root> roots, Set<String> seen)
+    throws IOException, URISyntaxException {
+
+        if (!url.getProtocol().equals("file")) {
+            throw new IOException("Not a file: " + url);
+        }
+
+        if (!seen.add(new URL(url, "#").toString())) {
+            return;
+        }
+
+        File file = new File(url.toURI());
+
+        if (file.isDirectory()) {
+            roots.add(new DirectoryRoot(file, url));
+            return;
+        }
+
+        if (!file.isFile()) {
+            roots.add(new MissingRoot(file));
+            return;
+        }
+
+        List<URL> manifestClasspath = new ArrayList<>();
+
+        roots.add(JarRoot.index(file, url, manifestClasspath));
+
+        for (URL manifestUrl : manifestClasspath) {
+            addRoot(manifestUrl, roots, seen);
+        }
+    }
+
+    static boolean isConfigResource(String name) {
+        return ConfigFiles.hasConfigExtension(name);
+    }
+
+    /**
+     * The URLs of the resources named {@code name}, in the order in which
+     * the class loader would find them.
+     *
+     * @param jarFiles Opens the resources that are in jars.
+     */
+    List<URL> resources(String name, JarFiles jarFiles) throws IOException {
+
+        List<URL> found = new ArrayList<>();
+
+        for (Root root : roots) {
+
+            URL url = root.resource(name, jarFiles);
+
+            if (url != null) {
+                found.add(url);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * A jar or directory on the classpath.
+     */
+    private interface Root {
+
+        /**
+         * @return {@code null} if the resource isn't in this root.
+         */
+        URL resource(String name, JarFiles jarFiles) throws IOException;
+
+        boolean isCurrent();
+    }
+
+    private static final class DirectoryRoot implements Root {
+
+        private final File directory;
+        private final URL url;
+
+        private DirectoryRoot(File directory, URL url) {
+            this.directory = directory;
+            this.url = url;
+        }
+
+        @Override
+        public URL resource(String name, JarFiles jarFiles)
+        throws IOException {
+
+            File file = new File(directory, name);
+
+            if (file.isFile()) {
+                return new URL(url, name);
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return directory.isDirectory();
+        }
+    }
+
+    /**
+     * A classpath entry that does not exist (yet).
+     */
+    private static final class MissingRoot implements Root {
+
+        private final File file;
+
+        private MissingRoot(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public URL resource(String name, JarFiles jarFiles) {
+            return null;
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return !file.exists();
+        }
+    }
+
+    private static final class JarRoot implements Root {
+
+        private final File jar;
+        private final long modified;
+        private final long size;
+        private final Set<String> resources;
+        private final String jarUrl;
+
+        private JarRoot(
+            File jar,
+            URL jarUrl,
+            long modified,
+            long size,
+            Set<String> resources
+        ) {
+            this.jar = jar;
+            this.modified = modified;
+            this.size = size;
+            this.resources = resources;
+            this.jarUrl = jarUrl.toString();
+        }
+
+        /**
+         * @param manifestClasspath Receives the URLs in the jar manifest's
+         *   {@code Class-Path} attribute.
+         */
+        private static JarRoot index(
+            File jar,
+            URL jarUrl,
+            List<URL> manifestClasspath
+        ) throws IOException {
+
+            long modified = jar.lastModified();
+            long size = jar.length();
+
+            Set<String> resources = new HashSet<>();
+
+            try (JarFile jarFile = new JarFile(jar)) {
+
+                Enumeration<? extends ZipEntry> entries = jarFile.entries();
+
+                while (entries.hasMoreElements()) {
+
+                    ZipEntry entry = entries.nextElement();
+                    String name = entry.getName();
+
+                    if (!entry.isDirectory() && isConfigResource(name)) {
+                        resources.add(name);
+                    }
+                }
+
+                Manifest manifest = jarFile.getManifest();
+
+                if (manifest != null) {
+
+                    String classPath = manifest.getMainAttributes()
+                        .getValue(Attributes.Name.CLASS_PATH);
+
+                    if (classPath != null) {
+                        for (String path : classPath.trim().split("\\s+")) {
+                            if (!path.isEmpty()) {
+                                manifestClasspath.add(new URL(jarUrl, path));
+                            }
+                        }
+                    }
+                }
+            }
+
+            return new JarRoot(jar, jarUrl, modified, size, resources);
+        }
+
+        @Override
+        public URL resource(String name, JarFiles jarFiles)
+        throws MalformedURLException {
+
+            if (!resources.contains(name)) {
+                return null;
+            }
+
+            // The same URL that URLClassLoader would give, but read
+            // through jarFiles.
+            return new URL(
+                "jar",
+                "",
+                -1,
+                jarUrl + "!/" + name,
+                jarFiles.handler(jar, name)
+            );
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return jar.lastModified() == modified && jar.length() == size;
+        }
+    }
+
+    /**
+     * Closes the jar files opened while using a class loader returned by
+     * {@link #indexed(ClassLoader)}. Resources found through it can still
+     * be read afterward, through {@link java.net.JarURLConnection}.
+     */
+    static void close(ClassLoader indexedLoader) {
+
+        if (indexedLoader instanceof IndexedClassLoader) {
+            ((IndexedClassLoader) indexedLoader).jarFiles.close();
+        }
+    }
+
+    /**
+     * Answers {@link #getResources(String)} for config resources from an
+     * index; everything else is delegated to the indexed class loader,
+     * which is this class loader's parent.
+     */
+    private static final class IndexedClassLoader extends ClassLoader {
+
+        private final ClasspathIndex index;
+        private final JarFiles jarFiles = new JarFiles();
+
+        private IndexedClassLoader(ClassLoader loader, ClasspathIndex index) {
+            super(loader);
+            this.index = index;
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name)
+        throws IOException {
+
+            if (!isConfigResource(name)) {
+                return super.getResources(name);
+            }
+
+            return Collections.enumeration(index.resources(name, jarFiles));
+        }
+    }
+}
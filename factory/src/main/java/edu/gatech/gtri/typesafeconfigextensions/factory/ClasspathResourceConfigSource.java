@@ -19,9 +19,26 @@ package edu.gatech.gtri.typesafeconfigextensions.factory;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigParseOptions;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 import static com.typesafe.config.ConfigFactory.parseResourcesAnySyntax;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 
+/**
+ * Loads classpath resources with
+ * {@code com.typesafe.config.ConfigFactory.parseResourcesAnySyntax}.
+ *
+ * <p>If a {@link ClassLoader} is bound, resources are found through its
+ * {@link ClasspathIndex}, rather than by asking each of its jars, and
+ * read from jars through {@link JarFiles} that stay open for the
+ * load.</p>
+ *
+ * <p>If a {@link ClassLoader} is bound and the bound {@link Executor} is a
+ * {@link ForkJoinPool}, each of the resources found is parsed in parallel
+ * on the pool; see {@link ParallelResourceParse}.</p>
+ */
 final class ClasspathResourceConfigSource
 extends BaseConfigSource {
 
@@ -32,30 +49,98 @@ extends BaseConfigSource {
     }
 
     @Override
-    public Config load(Bindings bindings) {
+    public Config load(final Bindings bindings) {
 
         checkNotNull(bindings);
 
-        Binding<ClassLoader> loader = bindings.get(ClassLoader.class);
+        Binding<ParseCache> cache = bindings.get(ParseCache.class);
 
-        Binding<ConfigParseOptions> parseOptions =
-            bindings.get(ConfigParseOptions.class);
+        if (cache.isPresent()) {
 
-        if (loader.isPresent() && parseOptions.isPresent()) {
+            Binding<ClassLoader> loader = bindings.get(ClassLoader.class);
+            Binding<ConfigParseOptions> parseOptions =
+                bindings.get(ConfigParseOptions.class);
 
-            return parseResourcesAnySyntax(
-                loader.get(),
+            ClassLoader cacheLoader;
+            ConfigParseOptions cacheParseOptions;
+
+            if (loader.isPresent()) {
+                cacheLoader = loader.get();
+            } else {
+                cacheLoader = Thread.currentThread().getContextClassLoader();
+            }
+
+            if (parseOptions.isPresent()) {
+                cacheParseOptions = parseOptions.get();
+            } else {
+                cacheParseOptions = ConfigParseOptions.defaults();
+            }
+
+            return cache.get().parseResources(
+                cacheLoader,
                 resourceBasename,
-                parseOptions.get()
+                cacheParseOptions,
+                new Callable<Config>() {
+
+                    @Override
+                    public Config call() {
+                        return parse(bindings);
+                    }
+                }
             );
         }
 
+        return parse(bindings);
+    }
+
+    private Config parse(Bindings bindings) {
+
+        Binding<ClassLoader> loader = bindings.get(ClassLoader.class);
+
+        Binding<ConfigParseOptions> parseOptions =
+            bindings.get(ConfigParseOptions.class);
+
         if (loader.isPresent()) {
 
-            return parseResourcesAnySyntax(
-                loader.get(),
-                resourceBasename
-            );
+            ClassLoader indexed = ClasspathIndex.indexed(loader.get());
+
+            try {
+
+                Binding<Executor> executor = bindings.get(Executor.class);
+
+                if (executor.isPresent()
+                        && executor.get() instanceof ForkJoinPool) {
+
+                    ConfigParseOptions options;
+
+                    if (parseOptions.isPresent()) {
+                        options = parseOptions.get();
+                    } else {
+                        options = ConfigParseOptions.defaults();
+                    }
+
+                    return ParallelResourceParse.parse(
+                        indexed,
+                        resourceBasename,
+                        options,
+                        (ForkJoinPool) executor.get()
+                    );
+                }
+
+                if (parseOptions.isPresent()) {
+
+                    return parseResourcesAnySyntax(
+                        indexed,
+                        resourceBasename,
+                        parseOptions.get()
+                    );
+                }
+
+                return parseResourcesAnySyntax(indexed, resourceBasename);
+
+            } finally {
+                ClasspathIndex.close(indexed);
+            }
         }
 
         if (parseOptions.isPresent()) {
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigSyntax;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+
+import static com.typesafe.config.ConfigFactory.parseResourcesAnySyntax;
+import static com.typesafe.config.ConfigFactory.parseString;
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory.emptyConfig;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * The merged contents of some classpath resources, together with
+ * checksums of the resources it was made from.
+ *
+ * <p>A snapshot is stored as a HOCON document:</p>
+ *
+ * <pre>{@code
+ * snapshot {
+ *   resources: [ reference, application ]
+ *   checksums: [ "reference.conf 1c291ca3", ... ]
+ * }
+ * config: { ... }
+ * }</pre>
+ *
+ * <p>The {@code config} object is the unresolved merge of the resources,
+ * so parsing it gives the same {@link Config} as parsing and merging the
+ * resources themselves, at the cost of one parse instead of one per
+ * resource.</p>
+ *
+ * @see ClasspathSnapshotWriter
+ * @see ClasspathSnapshotConfigSource
+ */
+final class ClasspathSnapshot {
+
+    private ClasspathSnapshot() { }
+
+    private static final String RESOURCES = "resources";
+    private static final String CHECKSUMS = "checksums";
+    private static final String SNAPSHOT = "snapshot";
+    private static final String CONFIG = "config";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Parses and merges the resources named by {@code resourceBasenames}
+     * (from lowest to highest precedence) the same way
+     * {@link ConfigFactory#classpathResource(String)} sources would.
+     */
+    static Config merge(
+        ClassLoader loader,
+        List<String> resourceBasenames,
+        ConfigParseOptions parseOptions
+    ) {
+        Config config = emptyConfig();
+
+        for (String basename : resourceBasenames) {
+            config = parseResourcesAnySyntax(loader, basename, parseOptions)
+                .withFallback(config);
+        }
+
+        return config;
+    }
+
+    /**
+     * A checksum of each resource that
+     * {@link #merge(ClassLoader, List, ConfigParseOptions) merge} reads,
+     * in the order in which it reads them.
+     */
+    static List<String> checksums(
+        ClassLoader loader,
+        List<String> resourceBasenames
+    ) throws IOException {
+
+        List<String> checksums = new ArrayList<>();
+
+        for (String basename : resourceBasenames) {
+            for (String name : resourceNames(basename)) {
+
+                Enumeration<URL> urls = loader.getResources(name);
+
+                while (urls.hasMoreElements()) {
+                    checksums.add(name + " " + checksum(urls.nextElement()));
+                }
+            }
+        }
+
+        return checksums;
+    }
+
+    /**
+     * The names of the resources that
+     * {@code com.typesafe.config.ConfigFactory.parseResourcesAnySyntax}
+     * reads for {@code basename}.
+     */
+    static List<String> resourceNames(String basename) {
+
+        String name = basename;
+
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+
+        if (ConfigFiles.hasConfigExtension(name)) {
+            return Collections.singletonList(name);
+        }
+
+        List<String> names = new ArrayList<>();
+
+        for (String extension : ConfigFiles.EXTENSIONS) {
+            names.add(name + extension);
+        }
+
+        return names;
+    }
+
+    /**
+     * The CRC-32 of the resource's contents. For an entry in a jar, this
+     * is the CRC that the jar records for it, so verifying a snapshot
+     * only reads the jars' directories; other resources are read in full.
+     */
+    private static String checksum(URL url) throws IOException {
+
+        JarEntry entry = jarEntry(url);
+
+        if (entry != null && entry.getCrc() != -1) {
+            return Long.toHexString(entry.getCrc());
+        }
+
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream in = url.openStream()) {
+
+            int n;
+
+            while ((n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+            }
+        }
+
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * The entry for a resource in a jar, as recorded in the jar's
+     * directory, without reading the entry itself.
+     *
+     * <p>The jar is opened afresh rather than through the JDK's cache of
+     * open jars, which would not notice that the jar had been replaced.
+     * </p>
+     *
+     * @return {@code null} if the resource isn't in a jar.
+     */
+    static JarEntry jarEntry(URL url) throws IOException {
+
+        if (!url.getProtocol().equals("jar")) {
+            return null;
+        }
+
+        // Through the JDK's handler, even for ClasspathIndex URLs.
+        URLConnection connection =
+            new URL(url.toExternalForm()).openConnection();
+
+        if (!(connection instanceof JarURLConnection)) {
+            return null;
+        }
+
+        JarURLConnection jarConnection = (JarURLConnection) connection;
+        jarConnection.setUseCaches(false);
+
+        JarFile jarFile = jarConnection.getJarFile();
+
+        try {
+            return jarFile.getJarEntry(jarConnection.getEntryName());
+        } finally {
+            jarFile.close();
+        }
+    }
+
+    /**
+     * Renders a snapshot document.
+     *
+     * @throws IllegalStateException
+     *   if {@code config} can't be rendered in a form that parses back to
+     *   the same {@link Config}.
+     */
+    static String render(
+        List<String> resourceBasenames,
+        List<String> checksums,
+        Config config
+    ) {
+        Config metadata = emptyConfig()
+            .withValue(
+                RESOURCES,
+                ConfigValueFactory.fromIterable(resourceBasenames)
+            )
+            .withValue(
+                CHECKSUMS,
+                ConfigValueFactory.fromIterable(checksums)
+            );
+
+        ConfigRenderOptions options = ConfigRenderOptions.concise();
+
+        String rendered = String.format(
+            "%s: %s%n%s: %s%n",
+            SNAPSHOT,
+            metadata.root().render(options),
+            CONFIG,
+            config.root().render(options)
+        );
+
+        if (!parse(rendered, SNAPSHOT).config().equals(config)) {
+            throw new IllegalStateException(
+                "Config can't be written to a snapshot without changing it"
+            );
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Parses a snapshot document.
+     *
+     * @param originDescription Describes where the document came from, in
+     *   the origins of the parsed {@link Config}.
+     * @throws ConfigException if {@code document} is not a snapshot.
+     */
+    static Parsed parse(String document, String originDescription) {
+        return new Parsed(parseString(
+            checkNotNull(document),
+            ConfigParseOptions.defaults()
+                .setSyntax(ConfigSyntax.CONF)
+                .setOriginDescription(checkNotNull(originDescription))
+        ));
+    }
+
+    static String read(InputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    static byte[] readBytes(InputStream in) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+
+        while ((n = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, n);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static final class Parsed {
+
+        private final Config document;
+
+        private Parsed(Config document) {
+            this.document = document;
+        }
+
+        List<String> resourceBasenames() {
+            return metadata().getStringList(RESOURCES);
+        }
+
+        List<String> checksums() {
+            return metadata().getStringList(CHECKSUMS);
+        }
+
+        Config config() {
+            return object(CONFIG).toConfig();
+        }
+
+        private Config metadata() {
+            return object(SNAPSHOT).toConfig();
+        }
+
+        private ConfigObject object(String key) {
+
+            ConfigValue value = document.root().get(key);
+
+            if (!(value instanceof ConfigObject)) {
+                throw new ConfigException.Missing(key);
+            }
+
+            return (ConfigObject) value;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigParseOptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+
+/**
+ * Loads a {@link ClasspathSnapshot} written at build time by
+ * {@link ClasspathSnapshotWriter}, if it is present on the classpath and
+ * was made from exactly the resources that are on the classpath now.
+ * Otherwise, parses the resources themselves.
+ */
+final class ClasspathSnapshotConfigSource
+extends BaseConfigSource {
+
+    private final String snapshotResource;
+    private final List<String> resourceBasenames;
+
+    ClasspathSnapshotConfigSource(
+        String snapshotResource,
+        List<String> resourceBasenamesFromLowestToHighestPrecedence
+    ) {
+        this.snapshotResource = checkNotNull(snapshotResource);
+        this.resourceBasenames = Collections.unmodifiableList(
+            new ArrayList<>(checkNotNullCollectionElements(
+                resourceBasenamesFromLowestToHighestPrecedence)));
+    }
+
+    @Override
+    public Config load(Bindings bindings) {
+
+        checkNotNull(bindings);
+
+        ClassLoader loader = ClasspathIndex.indexed(classLoader(bindings));
+
+        try {
+
+            Config snapshot = snapshot(loader, bindings);
+
+            if (snapshot != null) {
+                return snapshot;
+            }
+
+            return ClasspathSnapshot.merge(
+                loader,
+                resourceBasenames,
+                parseOptions(bindings)
+            );
+
+        } finally {
+            ClasspathIndex.close(loader);
+        }
+    }
+
+    /**
+     * @return {@code null} if the snapshot is missing, unreadable, or
+     *   out of date.
+     */
+    private Config snapshot(ClassLoader loader, Bindings bindings) {
+
+        String name = snapshotResource;
+
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+
+        URL url = loader.getResource(name);
+
+        if (url == null) {
+            return null;
+        }
+
+        try {
+
+            String document;
+
+            try (InputStream in = url.openStream()) {
+                document = ClasspathSnapshot.read(in);
+            }
+
+            if (SourceStatistics.isCollecting(bindings)) {
+                SourceStatistics.recordBytesRead(
+                    bindings,
+                    document.getBytes(StandardCharsets.UTF_8).length
+                );
+            }
+
+            ClasspathSnapshot.Parsed parsed = ClasspathSnapshot.parse(
+                document,
+                String.format("classpath snapshot: %s", url)
+            );
+
+            if (!parsed.resourceBasenames().equals(resourceBasenames)
+                    || !parsed.checksums().equals(ClasspathSnapshot.checksums(
+                        loader, resourceBasenames))) {
+                return null;
+            }
+
+            return parsed.config();
+
+        } catch (IOException | ConfigException e) {
+            return null;
+        }
+    }
+
+    private static ClassLoader classLoader(Bindings bindings) {
+
+        Binding<ClassLoader> loader = bindings.get(ClassLoader.class);
+
+        if (loader.isPresent()) {
+            return loader.get();
+        } else {
+            return Thread.currentThread().getContextClassLoader();
+        }
+    }
+
+    private static ConfigParseOptions parseOptions(Bindings bindings) {
+
+        Binding<ConfigParseOptions> parseOptions =
+            bindings.get(ConfigParseOptions.class);
+
+        if (parseOptions.isPresent()) {
+            return parseOptions.get();
+        } else {
+            return ConfigParseOptions.defaults();
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+            "ConfigSource { classpath snapshot: %s %s }",
+            snapshotResource,
+            resourceBasenames
+        );
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.ConfigParseOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+
+/**
+ * Writes the snapshot that a
+ * {@link ConfigFactory#classpathSnapshot(String, String, String...)
+ * classpathSnapshot} source loads, so that the classpath resources
+ * don't have to be parsed every time the application starts.
+ *
+ * <p>Run it at build time, with the application's runtime classpath:</p>
+ *
+ * <pre>{@code
+ * java -cp ... \
+ *   edu.gatech.gtri.typesafeconfigextensions.factory.ClasspathSnapshotWriter \
+ *   target/classes/config-snapshot.conf reference application
+ * }</pre>
+ *
+ * <p>The first argument is the file to write; the rest are the resource
+ * basenames, from lowest to highest precedence.</p>
+ */
+public final class ClasspathSnapshotWriter {
+
+    private ClasspathSnapshotWriter() { }
+
+    /**
+     * Parses and merges the {@code resourceBasenames} (from lowest to
+     * highest precedence) found by {@code loader}, and writes the result
+     * to {@code snapshotFile}.
+     *
+     * @throws IllegalStateException
+     *   if the merged resources can't be written without changing them.
+     * @throws IOException
+     *   if a resource can't be read or the snapshot can't be written.
+     */
+    public static void write(
+        ClassLoader loader,
+        List<String> resourceBasenames,
+        Path snapshotFile
+    ) throws IOException {
+
+        checkNotNull(loader);
+        checkNotNullCollectionElements(resourceBasenames);
+        checkNotNull(snapshotFile);
+
+        String document = ClasspathSnapshot.render(
+            resourceBasenames,
+            ClasspathSnapshot.checksums(loader, resourceBasenames),
+            ClasspathSnapshot.merge(
+                loader,
+                resourceBasenames,
+                ConfigParseOptions.defaults()
+            )
+        );
+
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Files.write(snapshotFile, document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link #write(ClassLoader, List, Path) Writes} a snapshot of
+     * resources found by this class's {@link ClassLoader}.
+     *
+     * @param args The snapshot file, followed by one or more resource
+     *   basenames from lowest to highest precedence.
+     * @throws IOException
+     *   if a resource can't be read or the snapshot can't be written.
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                "Usage: ClasspathSnapshotWriter <snapshot file> "
+                    + "<resource basename>..."
+            );
+        }
+
+        write(
+            ClasspathSnapshotWriter.class.getClassLoader(),
+            Arrays.asList(args).subList(1, args.length),
+            Paths.get(args[0])
+        );
+    }
+}
@@ -21,14 +21,19 @@ import com.typesafe.config.ConfigParseOptions;
 import com.typesafe.config.ConfigResolveOptions;
 import edu.gatech.gtri.typesafeconfigextensions.internal.Function;
 
+import java.nio.file.FileSystems;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
 import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigSourceList.emptyConfigSourceList;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Lists.listConcat;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Lists.listOfOne;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Lists.listOfTwoOrMore;
+import static java.util.Arrays.asList;
 
 /**
  * An immutable, adaptable factory for {@link Config}s.
@@ -86,35 +91,102 @@ public final class ConfigFactory {
         }
     }
 
+    private LoadPasses getLoadPasses() {
+
+        Binding<LoadPasses> loadPassesBinding =
+            bindings.get(LoadPasses.class);
+
+        if (loadPassesBinding.isPresent()) {
+            return loadPassesBinding.get();
+        } else {
+            return LoadPasses.twoPasses();
+        }
+    }
+
     /**
      * Evaluates the {@link ConfigSource}s, {@link #bind(Class) bind}s the
      * resulting {@link Config}, then evaluates the {@link ConfigSource}s
      * again.
      *
      * <p>The second evaluation takes place to allow sources to utilize
-     *   values produced by other config sources.</p>
+     *   values produced by other config sources. The number of
+     *   evaluations can be changed by binding {@link LoadPasses}; see
+     *   {@link #withLoadPasses(LoadPasses)}.</p>
+     *
+     * <p>During each evaluation, each source's use of the bound
+     *   {@link Config} is recorded. A source whose reads would give the
+     *   same results against the newly bound {@link Config} is not
+     *   evaluated again; its previous result is reused. If no source needs
+     *   to be evaluated again, the current {@link Config} is returned
+     *   without any further evaluations.</p>
+     *
+     * <p>If an {@link Executor} is {@link #withExecutor(Executor) bound},
+     *   all of the sources are evaluated concurrently on it during each
+     *   evaluation. The results are still combined in precedence order,
+     *   so the resulting {@link Config} is the same as it would be
+     *   without an executor. If the executor is a
+     *   {@link java.util.concurrent.ForkJoinPool ForkJoinPool}, the
+     *   top-level keys of the results are also merged in parallel, and
+     *   the resources found by each {@link #classpathResource(String)}
+     *   source are parsed in parallel.</p>
+     *
+     * @throws IllegalStateException
+     *   if {@link LoadPasses#untilFixedPoint(int)} is bound and the
+     *   sources do not converge.
      */
     public Config load() {
+        return compile().load();
+    }
 
-        ConfigResolveOptions resolveOptions = getResolveOptions();
-        HashMapBindings bindings = this.bindings;
-        Config config = emptyConfig();
-
-        for (int i = 0; i < 2; i++) {
-
-            config = emptyConfig();
-
-            for (ConfigSource source
-                    : sources.fromHighestToLowestPrecedence()) {
+    /**
+     * Prepares this factory's sources and bindings for loading, so that
+     * repeated loads (such as periodic reloads, or one per tenant) don't
+     * each have to look them up again.
+     *
+     * <p>{@code compile().load()} is equivalent to {@link #load()}. The
+     * returned {@link LoadPlan} is not affected by any changes made to
+     * this factory afterward.</p>
+     */
+    public LoadPlan compile() {
 
-                config = config.withFallback(source.load(bindings));
-            }
+        return new LoadPlan(
+            sources.fromHighestToLowestPrecedence(),
+            bindings,
+            getResolveOptions(),
+            getLoadPasses()
+        );
+    }
 
-            config = config.resolve(resolveOptions);
-            bindings = bindings.set(Config.class, config);
-        }
+    /**
+     * Performs a {@link #load()}, measuring how long each source and each
+     * pass takes.
+     *
+     * <p>If a {@link LoadListener} is
+     * {@link #withLoadListener(LoadListener) bound}, it receives the same
+     * measurements as they are taken.</p>
+     */
+    public LoadReport loadWithReport() {
+        return compile().loadWithReport();
+    }
 
-        return config;
+    /**
+     * Runs {@link #load()} on {@code executor}, so that the calling
+     * thread can do other work while file and JNDI I/O takes place.
+     *
+     * <p>The sources themselves are still evaluated as described by
+     * {@link #load()}: on the calling thread of {@code load()} (which is
+     * one of {@code executor}'s threads), or on the
+     * {@link #withExecutor(Executor) bound} executor if there is one.
+     * If both are the same bounded thread pool, it needs at least one
+     * more thread than the number of loads that may run at once.</p>
+     *
+     * @return A {@link Future} of the {@link Config} that {@link #load()}
+     *   returns. Exceptions thrown by {@link #load()} are rethrown by
+     *   {@link Future#get()} wrapped in an
+     *   {@link java.util.concurrent.ExecutionException ExecutionException}.
+     */
+    public Future<Config> loadAsync(Executor executor) {
+        return compile().loadAsync(executor);
     }
 
     /**
@@ -439,6 +511,121 @@ public final class ConfigFactory {
             .toInstance(checkNotNull(resolveOptions));
     }
 
+    /**
+     * Binds an {@link Executor} instance, on which the
+     * {@link ConfigSource}s will be evaluated concurrently when
+     * {@link #load() loading}.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(Executor.class).toInstance(executor)
+     * }</pre>
+     *
+     * <p>The executor may be a bounded thread pool, but it should not be
+     *   one whose threads are all waiting on {@link #load()}, or the
+     *   sources will never get to run.</p>
+     *
+     * @see #bind(Class)
+     */
+    public ConfigFactory withExecutor(Executor executor) {
+
+        return bind(Executor.class)
+            .toInstance(checkNotNull(executor));
+    }
+
+    /**
+     * Binds a {@link LoadPasses} instance, which determines how many
+     * times the {@link ConfigSource}s are evaluated when
+     * {@link #load() loading}.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(LoadPasses.class).toInstance(loadPasses)
+     * }</pre>
+     *
+     * @see #bind(Class)
+     */
+    public ConfigFactory withLoadPasses(LoadPasses loadPasses) {
+
+        return bind(LoadPasses.class)
+            .toInstance(checkNotNull(loadPasses));
+    }
+
+    /**
+     * Binds a {@link LoadListener} instance, which receives measurements
+     * of each source and each pass when {@link #load() loading}.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(LoadListener.class).toInstance(listener)
+     * }</pre>
+     *
+     * @see #bind(Class)
+     * @see LoadListeners#logSlowSources(long, java.util.concurrent.TimeUnit)
+     */
+    public ConfigFactory withLoadListener(LoadListener listener) {
+
+        return bind(LoadListener.class)
+            .toInstance(checkNotNull(listener));
+    }
+
+    /**
+     * Binds a {@link ConfigFileCache}, in which
+     * {@link #configFile() config files} are cached after they are parsed
+     * so that unchanged files need not be parsed again.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(ConfigFileCache.class).toInstance(cache)
+     * }</pre>
+     *
+     * @see #bind(Class)
+     */
+    public ConfigFactory withConfigFileCache(ConfigFileCache cache) {
+
+        return bind(ConfigFileCache.class)
+            .toInstance(checkNotNull(cache));
+    }
+
+    /**
+     * Binds a {@link MappedFileParse}, which makes
+     * {@link #configFile() config files} be read through memory-mapped
+     * buffers, at the cost of their values' origins having no filename or
+     * URL.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(MappedFileParse.class).toInstance(parse)
+     * }</pre>
+     *
+     * @see #bind(Class)
+     */
+    public ConfigFactory withMappedFileParse(MappedFileParse parse) {
+
+        return bind(MappedFileParse.class)
+            .toInstance(checkNotNull(parse));
+    }
+
+    /**
+     * Binds a {@link ParseCache}, which lets files, strings and classpath
+     * resources that have already been parsed (by this or any other
+     * factory with the same cache bound) be reused without parsing them
+     * again.
+     *
+     * <p>Equivalent to</p>
+     * <pre>{@code
+     * bind(ParseCache.class).toInstance(cache)
+     * }</pre>
+     *
+     * @see #bind(Class)
+     * @see ParseCache#shared()
+     */
+    public ConfigFactory withParseCache(ParseCache cache) {
+
+        return bind(ParseCache.class)
+            .toInstance(checkNotNull(cache));
+    }
+
     /**
      * A simple {@link ConfigSourceName} instance that can be useful for
      * referring to config sources.
@@ -496,6 +683,28 @@ public final class ConfigFactory {
             .named("system properties");
     }
 
+    /**
+     * A config source that loads the system properties accepted by
+     * {@code filter}, as {@link #systemProperties()} would load them.
+     *
+     * <p>The source keeps the {@link com.typesafe.config.Config} it
+     * loaded, and only converts the system properties again when they
+     * have changed (which {@link #systemProperties()} never does, because
+     * the Config library caches them until
+     * {@code com.typesafe.config.ConfigFactory.invalidateCaches()}).</p>
+     *
+     * <p>The config source's {@link ConfigSourceName#name() name}
+     * is "system properties".</p>
+     */
+    public static NamedConfigSource
+    systemProperties(SystemPropertyFilter filter) {
+
+        checkNotNull(filter);
+
+        return new FilteredSystemPropertiesConfigSource(filter)
+            .named("system properties");
+    }
+
     /**
      * A config source that loads Config from the classpath using
      * {@code resourceBasename} as the name of the resource.
@@ -517,6 +726,77 @@ public final class ConfigFactory {
             .named(String.format("classpath: %s", resourceBasename));
     }
 
+    /**
+     * A config source that loads a snapshot of classpath resources that
+     * was written at build time by {@link ClasspathSnapshotWriter}, rather
+     * than parsing each of the resources.
+     *
+     * <p>The snapshot is only used if it was made from the same resource
+     * basenames and from resources with the same checksums as the ones on
+     * the classpath now. Otherwise (or if {@code snapshotResource} is
+     * missing) the resources are parsed and merged, as by
+     * {@link #classpathResource(String)} sources with the same
+     * precedence order. The {@link ConfigParseOptions} binding applies
+     * only when the resources are parsed.</p>
+     *
+     * <p>Checking the snapshot still finds every resource. For resources
+     * in jars it uses the checksums recorded in the jars' directories,
+     * but resources in directories are read in full, so the snapshot
+     * saves parsing, not reading.</p>
+     *
+     * <p>The config source's {@link ConfigSourceName#name() name}
+     * is "classpath snapshot: " followed by the resource basenames.</p>
+     *
+     * @param snapshotResource The name of the snapshot resource.
+     * @param firstResourceBasename The resource with the lowest
+     *   precedence, such as {@code "reference"}.
+     * @param moreResourceBasenames The rest of the resources, from lowest
+     *   to highest precedence.
+     */
+    public static NamedConfigSource classpathSnapshot(
+        String snapshotResource,
+        String firstResourceBasename,
+        String... moreResourceBasenames
+    ) {
+        List<String> resourceBasenames = listConcat(
+            listOfOne(firstResourceBasename),
+            asList(moreResourceBasenames)
+        );
+
+        return new ClasspathSnapshotConfigSource(
+            checkNotNull(snapshotResource),
+            resourceBasenames
+        ).named(String.format(
+            "classpath snapshot: %s",
+            join(resourceBasenames)
+        ));
+    }
+
+    private static String join(List<String> strings) {
+
+        StringBuilder str = new StringBuilder();
+
+        for (int i = 0; i < strings.size(); i++) {
+
+            if (i != 0) {
+                str.append(", ");
+            }
+
+            str.append(strings.get(i));
+        }
+
+        return str.toString();
+    }
+
+    /**
+     * A config source that loads Config from a file.
+     *
+     * <p>Files whose names end with {@value BinaryConfigFormat#EXTENSION}
+     * are decoded with {@link BinaryConfigFormat}; any other file is
+     * parsed with
+     * {@code com.typesafe.config.ConfigFactory.parseFileAnySyntax}, using
+     * the {@link ConfigParseOptions} from the {@link Bindings}.</p>
+     */
     public static FileConfigSourceStep configFile() {
 
         return new BaseFileConfigSourceStep() {
@@ -532,6 +812,55 @@ public final class ConfigFactory {
         };
     }
 
+    /**
+     * A config source that loads every file in a directory whose name
+     * matches {@code glob}, such as {@code "*.conf"}.
+     *
+     * <p>Each regular file (or link to one) is loaded as a
+     * {@link #configFile()} source would load it; subdirectories and other
+     * entries are skipped. The files are merged from lowest to highest
+     * precedence in the lexical order of their names. A missing directory
+     * is treated as empty if the bound {@link ConfigParseOptions} allow
+     * missing files.</p>
+     *
+     * <p>If the bound {@link Executor} is a
+     * {@link java.util.concurrent.ForkJoinPool ForkJoinPool}, the files
+     * are parsed in parallel on it.</p>
+     *
+     * <p>The config source's {@link ConfigSourceName#name() name} is
+     * "directory _, glob _", where the first "_" is the
+     * {@link PathSpecification#name() name} of the directory's path
+     * specification.</p>
+     *
+     * @param glob A pattern for the names of the files, with the syntax
+     *   of {@link java.nio.file.FileSystem#getPathMatcher(String)}'s
+     *   {@code glob} patterns.
+     * @throws java.util.regex.PatternSyntaxException If {@code glob} is
+     *   not a valid pattern.
+     */
+    public static FileConfigSourceStep configDirectory(final String glob) {
+
+        checkNotNull(glob);
+
+        FileSystems.getDefault().getPathMatcher("glob:" + glob);
+
+        return new BaseFileConfigSourceStep() {
+
+            @Override
+            public NamedConfigSource by(PathSpecification pathSpecification) {
+
+                checkNotNull(pathSpecification);
+
+                return new DirectoryConfigSource(pathSpecification, glob)
+                    .named(String.format(
+                        "directory %s, glob %s",
+                        pathSpecification.name(),
+                        glob
+                    ));
+            }
+        };
+    }
+
     /**
      * A config source that loads Config by parsing a string.
      *
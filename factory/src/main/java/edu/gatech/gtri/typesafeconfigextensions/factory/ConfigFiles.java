@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the library's {@code *AnySyntax} methods assume about the names
+ * of config files and resources, and what can be told about a config
+ * from its text without parsing it.
+ */
+final class ConfigFiles {
+
+    /**
+     * The extensions that {@code parseFileAnySyntax} and
+     * {@code parseResourcesAnySyntax} look for, in the order they merge
+     * them.
+     */
+    static final List<String> EXTENSIONS = Collections.unmodifiableList(
+        Arrays.asList(".conf", ".json", ".properties"));
+
+    private static final String INCLUDE = "include";
+
+    private ConfigFiles() { }
+
+    /**
+     * @return {@code null} if {@code name} has none of the
+     *   {@link #EXTENSIONS}.
+     */
+    static ConfigSyntax syntax(String name) {
+
+        if (name.endsWith(".conf")) {
+            return ConfigSyntax.CONF;
+        }
+
+        if (name.endsWith(".json")) {
+            return ConfigSyntax.JSON;
+        }
+
+        if (name.endsWith(".properties")) {
+            return ConfigSyntax.PROPERTIES;
+        }
+
+        return null;
+    }
+
+    static boolean hasConfigExtension(String name) {
+        return syntax(name) != null;
+    }
+
+    /**
+     * The one file that {@code parseFileAnySyntax} would read for
+     * {@code path}: {@code path} itself if it has a config extension,
+     * and otherwise the one existing file named {@code path} plus an
+     * extension.
+     *
+     * @return {@code null} if it would read no file or several.
+     */
+    static Path anySyntaxFile(Path path, ConfigParseOptions options) {
+
+        String fileName = String.valueOf(path.getFileName());
+
+        if (hasConfigExtension(fileName)) {
+
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
+
+            return null;
+        }
+
+        if (options.getSyntax() != null) {
+            return null;
+        }
+
+        List<Path> found = new ArrayList<>();
+
+        for (String extension : EXTENSIONS) {
+
+            Path candidate = path.resolveSibling(fileName + extension);
+
+            if (Files.exists(candidate)) {
+                found.add(candidate);
+            }
+        }
+
+        if (found.size() == 1 && Files.isRegularFile(found.get(0))) {
+            return found.get(0);
+        }
+
+        return null;
+    }
+
+    /**
+     * Whether a config might {@code include} something, in which case
+     * parsing it again could give a different result even though its own
+     * text hasn't changed. This errs on the side of {@code true}: the
+     * word could appear in a value or a comment.
+     */
+    static boolean mayInclude(String text) {
+        return text.contains(INCLUDE);
+    }
+
+    /**
+     * {@link #mayInclude(String)}, for UTF-8 text in a buffer that may be
+     * too large to copy onto the heap, such as a mapped file. No byte of a
+     * multi-byte UTF-8 sequence is an ASCII character, so the bytes can be
+     * searched without decoding them.
+     */
+    static boolean mayInclude(ByteBuffer utf8) {
+
+        int last = utf8.limit() - INCLUDE.length();
+
+        for (int i = utf8.position(); i <= last; i++) {
+
+            int j = 0;
+
+            while (j < INCLUDE.length()
+                    && utf8.get(i + j) == INCLUDE.charAt(j)) {
+                j++;
+            }
+
+            if (j == INCLUDE.length()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * {@link #mayInclude(String)}, for UTF-8 text. No byte of a multi-byte
+     * UTF-8 sequence is an ASCII character, so the bytes can be decoded
+     * one to one as ISO-8859-1 instead of as UTF-8.
+     */
+    static boolean mayInclude(byte[] utf8) {
+        return mayInclude(new String(utf8, StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+
+import java.util.Map;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * A 64-bit hash of the structure and values of a {@link Config}.
+ *
+ * <p>Equal {@link Config}s have equal fingerprints. Like
+ * {@link Config#equals(Object)}, the fingerprint ignores origins, and
+ * doesn't depend on the order in which an object's keys were added.</p>
+ */
+final class ConfigFingerprint {
+
+    private static final long OBJECT = 0x9e3779b97f4a7c15L;
+    private static final long LIST = 0xc2b2ae3d27d4eb4fL;
+    private static final long NULL = 0x165667b19e3779f9L;
+    private static final long TRUE = 0xd6e8feb86659fd93L;
+    private static final long FALSE = 0xa0761d6478bd642fL;
+    private static final long WHOLE_NUMBER = 0xe7037ed1a0b428dbL;
+    private static final long NUMBER = 0x8ebc6af09c88c6e3L;
+    private static final long STRING = 0x589965cc75374cc3L;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long MIX_1 = 0xbf58476d1ce4e5b9L;
+    private static final long MIX_2 = 0x94d049bb133111ebL;
+    private static final int SHIFT_1 = 30;
+    private static final int SHIFT_2 = 27;
+    private static final int SHIFT_3 = 31;
+
+    private ConfigFingerprint() { }
+
+    static long fingerprint(Config config) {
+        return fingerprint(checkNotNull(config).root());
+    }
+
+    private static long fingerprint(ConfigValue value) {
+
+        switch (value.valueType()) {
+
+            case OBJECT:
+
+                // Sum the entries so that the key order doesn't matter.
+                long sum = OBJECT;
+
+                for (Map.Entry<String, ConfigValue> entry
+                        : ((ConfigObject) value).entrySet()) {
+
+                    sum += mix(
+                        fingerprint(entry.getKey())
+                            ^ mix(fingerprint(entry.getValue()))
+                    );
+                }
+
+                return mix(sum);
+
+            case LIST:
+
+                long hash = LIST;
+
+                for (ConfigValue element : (ConfigList) value) {
+                    hash = mix(hash ^ fingerprint(element));
+                }
+
+                return hash;
+
+            case NUMBER:
+                return fingerprint((Number) value.unwrapped());
+
+            case BOOLEAN:
+
+                if ((Boolean) value.unwrapped()) {
+                    return TRUE;
+                } else {
+                    return FALSE;
+                }
+
+            case STRING:
+                return mix(STRING ^ fingerprint((String) value.unwrapped()));
+
+            default:
+                return NULL;
+        }
+    }
+
+    /**
+     * Whole numbers are compared by value regardless of their type, as
+     * they are by {@link ConfigValue#equals(Object)}.
+     */
+    private static long fingerprint(Number number) {
+
+        double d = number.doubleValue();
+
+        if (d == number.longValue()) {
+            return mix(WHOLE_NUMBER ^ number.longValue());
+        } else {
+            return mix(NUMBER ^ Double.doubleToLongBits(d));
+        }
+    }
+
+    /**
+     * FNV-1a over the characters of a string.
+     */
+    private static long fingerprint(String s) {
+
+        long hash = FNV_OFFSET;
+
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+
+        z = (z ^ (z >>> SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+
+        return z ^ (z >>> SHIFT_3);
+    }
+}
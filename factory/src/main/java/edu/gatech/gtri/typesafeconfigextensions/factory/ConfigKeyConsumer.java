@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+import java.util.Set;
+
+/**
+ * Something that declares which paths of the bound {@link Config} it
+ * reads, such as a {@link PathSpecification} or a {@link ConfigSource}.
+ *
+ * <p>{@link ConfigFactory#load()} uses these declarations during a
+ * {@link LoadPasses#withBootstrapPass() bootstrap pass}, and to decide
+ * which sources to evaluate again after the bound {@link Config} changes:
+ * a source that declares keys is only evaluated again if the values at
+ * those keys changed. The declaration must therefore cover every path the
+ * source reads.</p>
+ *
+ * @see PathSpecifications#byKey(String)
+ */
+public interface ConfigKeyConsumer {
+
+    /**
+     * The paths in the bound {@link Config} that this reads.
+     *
+     * <p>An empty set means that no paths are known in advance, not
+     * necessarily that the {@link Config} is never read.</p>
+     */
+    Set<String> consumedConfigKeys();
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.util.Collections;
+import java.util.Set;
+
+final class ConfigKeyConsumers {
+
+    private ConfigKeyConsumers() { }
+
+    /**
+     * The keys declared by {@code object} if it is a
+     * {@link ConfigKeyConsumer}, or the empty set otherwise.
+     */
+    static Set<String> consumedConfigKeys(Object object) {
+
+        if (object instanceof ConfigKeyConsumer) {
+            return ((ConfigKeyConsumer) object).consumedConfigKeys();
+        } else {
+            return Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory.emptyConfig;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+
+/**
+ * Merges any number of {@link Config}s at once, with the same result as
+ * folding them with {@link Config#withFallback withFallback}.
+ *
+ * <p>Folding {@code n} configs one at a time copies the growing merged
+ * root object at every step. Instead, the configs' values are grouped by
+ * top-level key, each key's values are folded on their own (which is
+ * exactly what {@code withFallback} does to the children of two objects),
+ * and the root is assembled from the per-key results by a balanced series
+ * of merges of disjoint objects.</p>
+ *
+ * <p>The keys are independent of each other, so given a
+ * {@link ForkJoinPool}, they are merged in parallel.</p>
+ */
+final class ConfigMerge {
+
+    /**
+     * Ranges of at most this many keys are merged on a single thread.
+     */
+    private static final int SEQUENTIAL_KEYS = 64;
+
+    private final ConfigObject emptyRoot;
+    private final List<String> keys;
+    private final List<List<ConfigValue>> values;
+
+    private ConfigMerge(
+        ConfigObject emptyRoot,
+        List<String> keys,
+        List<List<ConfigValue>> values
+    ) {
+        this.emptyRoot = emptyRoot;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    static Config merge(List<Config> fromHighestToLowestPrecedence) {
+        return merge(fromHighestToLowestPrecedence, null);
+    }
+
+    /**
+     * @param pool If not {@code null}, the pool on which to merge the
+     *   top-level keys in parallel.
+     */
+    static Config merge(
+        List<Config> fromHighestToLowestPrecedence,
+        ForkJoinPool pool
+    ) {
+        checkNotNullCollectionElements(fromHighestToLowestPrecedence);
+
+        List<ConfigObject> roots = new ArrayList<>();
+
+        for (Config config : fromHighestToLowestPrecedence) {
+
+            if (!config.isEmpty()) {
+                roots.add(config.root());
+            }
+        }
+
+        if (roots.isEmpty()) {
+            return emptyConfig();
+        }
+
+        if (roots.size() == 1) {
+            return roots.get(0).toConfig();
+        }
+
+        Map<String, List<ConfigValue>> valuesByKey = new LinkedHashMap<>();
+
+        for (ConfigObject root : roots) {
+
+            for (Map.Entry<String, ConfigValue> entry : root.entrySet()) {
+
+                List<ConfigValue> keyValues =
+                    valuesByKey.get(entry.getKey());
+
+                if (keyValues == null) {
+                    keyValues = new ArrayList<>();
+                    valuesByKey.put(entry.getKey(), keyValues);
+                }
+
+                keyValues.add(entry.getValue());
+            }
+        }
+
+        ConfigMerge merge = new ConfigMerge(
+            emptyRoot(roots),
+            new ArrayList<>(valuesByKey.keySet()),
+            new ArrayList<>(valuesByKey.values())
+        );
+
+        ConfigObject merged;
+
+        if (pool == null) {
+            merged = merge.assemble(0, merge.keys.size());
+        } else {
+            merged = pool.invoke(merge.new Assembly(0, merge.keys.size()));
+        }
+
+        // A root that ignores fallbacks (which the library's own parsers
+        // never produce) can't be assembled from parts.
+        if (merged.size() != merge.keys.size()) {
+            return chain(fromHighestToLowestPrecedence);
+        }
+
+        return merged.toConfig();
+    }
+
+    private static Config chain(List<Config> fromHighestToLowestPrecedence) {
+
+        Config config = emptyConfig();
+
+        for (Config sourceConfig : fromHighestToLowestPrecedence) {
+            config = config.withFallback(sourceConfig);
+        }
+
+        return config;
+    }
+
+    /**
+     * An empty object whose origin is the one that the root of a
+     * {@code withFallback} chain would have.
+     *
+     * <p>Each root is reduced to an object with a single, unique key, so
+     * that folding them merges the roots' origins without copying any of
+     * their contents.</p>
+     */
+    private static ConfigObject emptyRoot(List<ConfigObject> roots) {
+
+        ConfigValue marker = ConfigValueFactory.fromAnyRef(true);
+        ConfigObject origins = null;
+
+        for (int i = 0; i < roots.size(); i++) {
+
+            String key = String.valueOf(i);
+
+            ConfigObject stub = roots.get(i)
+                .withOnlyKey(key)
+                .withValue(key, marker);
+
+            if (origins == null) {
+                origins = stub;
+            } else {
+                origins = origins.withFallback(stub);
+            }
+        }
+
+        return checkNotNull(origins).withOnlyKey("");
+    }
+
+    /**
+     * Merges the keys with indexes in {@code [from, to)}.
+     */
+    private ConfigObject assemble(int from, int to) {
+
+        if (to - from == 1) {
+            return emptyRoot.withValue(keys.get(from), fold(values.get(from)));
+        }
+
+        int middle = (from + to) >>> 1;
+
+        return assemble(from, middle).withFallback(assemble(middle, to));
+    }
+
+    private static ConfigValue fold(List<ConfigValue> fromHighestToLowest) {
+
+        ConfigValue value = fromHighestToLowest.get(0);
+
+        for (int i = 1; i < fromHighestToLowest.size(); i++) {
+            value = value.withFallback(fromHighestToLowest.get(i));
+        }
+
+        return value;
+    }
+
+    private final class Assembly extends RecursiveTask<ConfigObject> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private Assembly(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ConfigObject compute() {
+
+            if (to - from <= SEQUENTIAL_KEYS) {
+                return assemble(from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+
+            Assembly first = new Assembly(from, middle);
+            first.fork();
+
+            ConfigObject second = new Assembly(middle, to).compute();
+
+            return first.join().withFallback(second);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigValue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * A record of how one {@link ConfigSource} used the {@link Config} that was
+ * bound in its {@link Bindings} during one evaluation.
+ *
+ * <p>A {@link ConfigSource} that never looked at the bound {@link Config},
+ * or that only looked at paths whose values are the same in some other
+ * {@link Config}, would produce the same result if it were evaluated
+ * again with that other {@link Config} bound instead.</p>
+ *
+ * <p>Reads are recorded per source, not per call: the {@link Config} is
+ * handed to the source as it is, since the library casts {@link Config}
+ * arguments (to {@code withFallback}, {@code checkValid} and so on) to its
+ * own implementation, which no wrapper could survive.</p>
+ *
+ * @see ReadTrackingBindings
+ */
+final class ConfigReads {
+
+    private final Config boundConfig;
+
+    private boolean lookedUp;
+    private boolean readEverything;
+    private final Set<String> paths = new HashSet<>();
+
+    /**
+     * @param boundConfig The {@link Config} that is bound in the
+     *   {@link Bindings} being tracked, or {@code null} if none is bound.
+     */
+    ConfigReads(Config boundConfig) {
+        this.boundConfig = boundConfig;
+    }
+
+    synchronized void lookedUp() {
+        lookedUp = true;
+    }
+
+    synchronized void readEverything() {
+        lookedUp = true;
+        readEverything = true;
+    }
+
+    synchronized void readPath(String path) {
+        lookedUp = true;
+        paths.add(checkNotNull(path));
+    }
+
+    synchronized boolean anyRead() {
+        return lookedUp;
+    }
+
+    /**
+     * Whether every path that was read is one of {@code allowedPaths}.
+     */
+    synchronized boolean readOnly(Collection<String> allowedPaths) {
+
+        checkNotNull(allowedPaths);
+
+        return !readEverything && allowedPaths.containsAll(paths);
+    }
+
+    /**
+     * Whether every read that was recorded would have given the same
+     * result if {@code config} had been bound instead.
+     */
+    synchronized boolean unchangedIn(Config config) {
+
+        checkNotNull(config);
+
+        if (!lookedUp) {
+            return true;
+        }
+
+        if (boundConfig == null) {
+            return false;
+        }
+
+        if (readEverything) {
+            return boundConfig.equals(config);
+        }
+
+        for (String path : paths) {
+
+            ConfigValue before = valueAt(boundConfig, path);
+            ConfigValue after = valueAt(config, path);
+
+            if (!sameValue(before, after)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean sameValue(ConfigValue a, ConfigValue b) {
+
+        if (a == null) {
+            return b == null;
+        }
+
+        return a.equals(b);
+    }
+
+    private static ConfigValue valueAt(Config config, String path) {
+
+        try {
+
+            if (config.hasPath(path)) {
+                return config.getValue(path);
+            }
+
+        } catch (ConfigException ignored) { }
+
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * A SHA-256 hash of some content, built up from one or more arrays of
+ * bytes.
+ */
+final class ContentHash {
+
+    private final MessageDigest digest;
+
+    ContentHash() {
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String of(byte[] bytes) {
+        return new ContentHash().add(bytes).hex();
+    }
+
+    ContentHash add(byte[] bytes) {
+        digest.update(checkNotNull(bytes));
+        return this;
+    }
+
+    /**
+     * The hash as a hexadecimal string. No more content can be added
+     * afterward.
+     */
+    String hex() {
+
+        StringBuilder hex = new StringBuilder();
+
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import static com.typesafe.config.ConfigFactory.parseFile;
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory.emptyConfig;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Loads every file in a directory whose name matches a glob, such as the
+ * {@code *.conf} fragments in a {@code conf.d} directory.
+ *
+ * <p>The files are found with a single listing of the directory. Each
+ * one with a config extension is loaded as a {@link FileConfigSource}
+ * would load it, and any other, such as {@code 50-local} or
+ * {@code app.conf.bak}, is parsed as HOCON. They are merged from lowest
+ * to highest precedence in the lexical order of their names, so
+ * {@code 90-local.conf} overrides {@code 10-base.conf}.</p>
+ *
+ * <p>If the bound {@link Executor} is a {@link ForkJoinPool}, the files
+ * are parsed in parallel on it.</p>
+ */
+final class DirectoryConfigSource
+extends BaseConfigSource
+implements ConfigKeyConsumer {
+
+    private final PathSpecification pathSpecification;
+    private final String glob;
+
+    DirectoryConfigSource(PathSpecification pathSpecification, String glob) {
+        this.pathSpecification = checkNotNull(pathSpecification);
+        this.glob = checkNotNull(glob);
+    }
+
+    @Override
+    public Config load(Bindings bindings) {
+
+        checkNotNull(bindings);
+
+        OptionalPath path = pathSpecification.path(bindings);
+
+        if (!path.isPresent()) {
+            return emptyConfig();
+        }
+
+        List<Path> files = list(path.get(), bindings);
+
+        if (files.isEmpty()) {
+            return emptyConfig();
+        }
+
+        final List<FileLoad> loads = new ArrayList<>();
+
+        // From highest to lowest precedence, for ConfigMerge.
+        for (int i = files.size() - 1; i >= 0; i--) {
+            loads.add(new FileLoad(files.get(i), bindings));
+        }
+
+        ForkJoinPool pool = pool(bindings);
+        List<Config> configs = new ArrayList<>();
+
+        if (pool != null && loads.size() > 1) {
+
+            pool.invoke(new RecursiveAction() {
+
+                @Override
+                protected void compute() {
+                    invokeAll(loads);
+                }
+            });
+
+            for (FileLoad load : loads) {
+                configs.add(load.join());
+            }
+
+        } else {
+
+            for (FileLoad load : loads) {
+                configs.add(load.compute());
+            }
+        }
+
+        return ConfigMerge.merge(configs, pool);
+    }
+
+    /**
+     * The matching regular files (or links to them) in {@code directory},
+     * sorted by name. A missing directory has no entries if the bound
+     * {@link ConfigParseOptions} allow missing files.
+     */
+    private List<Path> list(Path directory, Bindings bindings) {
+
+        List<Path> files = new ArrayList<>();
+
+        try (DirectoryStream<Path> entries =
+                Files.newDirectoryStream(directory, glob)) {
+
+            for (Path entry : entries) {
+
+                if (Files.isRegularFile(entry)) {
+                    files.add(entry);
+                }
+            }
+
+        } catch (NoSuchFileException | NotDirectoryException e) {
+
+            if (allowMissing(bindings)) {
+                return Collections.emptyList();
+            }
+
+            throw new IllegalStateException(
+                String.format("Config directory %s does not exist", directory),
+                e
+            );
+
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                String.format("Could not list config directory %s", directory),
+                e
+            );
+        }
+
+        Collections.sort(files);
+
+        return files;
+    }
+
+    private static boolean allowMissing(Bindings bindings) {
+        return configParseOptions(bindings).getAllowMissing();
+    }
+
+    private static ConfigParseOptions configParseOptions(Bindings bindings) {
+
+        Binding<ConfigParseOptions> parseOptions =
+            bindings.get(ConfigParseOptions.class);
+
+        if (parseOptions.isPresent()) {
+            return parseOptions.get();
+        } else {
+            return ConfigParseOptions.defaults();
+        }
+    }
+
+    /**
+     * @return {@code null} unless the bound {@link Executor} is a
+     *   {@link ForkJoinPool}.
+     */
+    private static ForkJoinPool pool(Bindings bindings) {
+
+        Binding<Executor> executor = bindings.get(Executor.class);
+
+        if (executor.isPresent() && executor.get() instanceof ForkJoinPool) {
+            return (ForkJoinPool) executor.get();
+        }
+
+        return null;
+    }
+
+    private static final class FileLoad extends RecursiveTask<Config> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path file;
+        private final Bindings bindings;
+
+        private FileLoad(Path file, Bindings bindings) {
+            this.file = file;
+            this.bindings = bindings;
+        }
+
+        /**
+         * A {@link FileConfigSource} would look for the file plus an
+         * extension if it has none of its own, and so would miss it.
+         */
+        @Override
+        protected Config compute() {
+
+            String fileName = String.valueOf(file.getFileName());
+
+            if (ConfigFiles.hasConfigExtension(fileName)
+                    || BinaryConfigFormat.isBinaryConfigFile(file)) {
+
+                return new FileConfigSource(PathSpecifications.byPath(file))
+                    .load(bindings);
+            }
+
+            Config config = parseFile(file.toFile(),
+                configParseOptions(bindings).setSyntax(ConfigSyntax.CONF));
+
+            if (SourceStatistics.isCollecting(bindings)) {
+
+                try {
+                    SourceStatistics.recordBytesRead(bindings,
+                        Files.size(file));
+                } catch (IOException ignored) { }
+            }
+
+            return config;
+        }
+    }
+
+    @Override
+    public Set<String> consumedConfigKeys() {
+        return ConfigKeyConsumers.consumedConfigKeys(pathSpecification);
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+            "ConfigSource { directory %s, glob %s }",
+            pathSpecification.name(),
+            glob
+        );
+    }
+}
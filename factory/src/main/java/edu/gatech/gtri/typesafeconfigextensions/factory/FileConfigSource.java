@@ -19,13 +19,22 @@ package edu.gatech.gtri.typesafeconfigextensions.factory;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigParseOptions;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
+import static com.typesafe.config.ConfigFactory.parseFileAnySyntax;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory.emptyConfig;
 
 final class FileConfigSource
-extends BaseConfigSource {
+extends BaseConfigSource
+implements ConfigKeyConsumer {
 
     private final PathSpecification pathSpecification;
 
@@ -47,12 +56,129 @@ extends BaseConfigSource {
         }
     }
 
-    private Config parse(Path path, Bindings bindings) {
+    private Config parse(final Path path, final Bindings bindings) {
 
-        return com.typesafe.config.ConfigFactory.parseFileAnySyntax(
-            path.toFile(),
-            configParseOptions(bindings)
-        );
+        if (BinaryConfigFormat.isBinaryConfigFile(path)) {
+            return readBinary(path, bindings);
+        }
+
+        Binding<ParseCache> parseCache = bindings.get(ParseCache.class);
+        Config config;
+
+        if (parseCache.isPresent()) {
+            config = parseCache.get().parseFile(
+                path,
+                configParseOptions(bindings),
+                new Callable<Config>() {
+
+                    @Override
+                    public Config call() {
+                        return parseUncached(path, bindings);
+                    }
+                }
+            );
+        } else {
+            config = parseUncached(path, bindings);
+        }
+
+        if (SourceStatistics.isCollecting(bindings)) {
+            SourceStatistics.recordBytesRead(bindings, sizeOfFiles(path));
+        }
+
+        return config;
+    }
+
+    /**
+     * Parses the file, or loads it from the {@link ConfigFileCache} if one
+     * is bound.
+     *
+     * <p>Unless a {@link MappedFileParse} is bound, the file is read by the
+     * library itself: only then do its values' origins have a
+     * {@link com.typesafe.config.ConfigOrigin#filename() filename} and
+     * {@link com.typesafe.config.ConfigOrigin#url() URL}.</p>
+     */
+    private Config parseUncached(Path path, Bindings bindings) {
+
+        Binding<ConfigFileCache> cache = bindings.get(ConfigFileCache.class);
+
+        if (cache.isPresent()) {
+            return cache.get().parse(path, configParseOptions(bindings));
+        }
+
+        Binding<MappedFileParse> mapped =
+            bindings.get(MappedFileParse.class);
+
+        if (mapped.isPresent()) {
+            return mapped.get().parse(path, configParseOptions(bindings));
+        }
+
+        return parseFileAnySyntax(path.toFile(), configParseOptions(bindings));
+    }
+
+    /**
+     * Like {@code parseFileAnySyntax}, a missing file is treated as empty
+     * if the {@link ConfigParseOptions} allow it.
+     */
+    private Config readBinary(Path path, Bindings bindings) {
+
+        if (!Files.exists(path)
+                && configParseOptions(bindings).getAllowMissing()) {
+            return emptyConfig();
+        }
+
+        try {
+
+            Config config = BinaryConfigFormat.read(path);
+
+            if (SourceStatistics.isCollecting(bindings)) {
+                SourceStatistics.recordBytesRead(bindings, Files.size(path));
+            }
+
+            return config;
+
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                String.format("Could not read binary config file %s", path),
+                e
+            );
+        }
+    }
+
+    /**
+     * The total size of the files that
+     * {@link com.typesafe.config.ConfigFactory#parseFileAnySyntax
+     * parseFileAnySyntax} reads for {@code path}: the file itself if it
+     * has one of the known extensions, or otherwise each existing file
+     * named {@code path} plus one of the extensions.
+     */
+    private static long sizeOfFiles(Path path) {
+
+        List<Path> files = new ArrayList<>();
+        String fileName = String.valueOf(path.getFileName());
+
+        if (ConfigFiles.hasConfigExtension(fileName)) {
+            files = Collections.singletonList(path);
+        } else {
+
+            for (String extension : ConfigFiles.EXTENSIONS) {
+                files.add(path.resolveSibling(fileName + extension));
+            }
+        }
+
+        long size = 0;
+
+        for (Path file : files) {
+
+            try {
+
+                if (Files.isRegularFile(file)) {
+                    size += Files.size(file);
+                }
+
+            } catch (IOException ignored) { }
+        }
+
+        return size;
     }
 
     private ConfigParseOptions configParseOptions(Bindings bindings) {
@@ -67,6 +193,11 @@ extends BaseConfigSource {
         }
     }
 
+    @Override
+    public Set<String> consumedConfigKeys() {
+        return ConfigKeyConsumers.consumedConfigKeys(pathSpecification);
+    }
+
     @Override
     public String toString() {
 
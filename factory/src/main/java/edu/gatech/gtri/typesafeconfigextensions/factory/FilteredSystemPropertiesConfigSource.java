@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigParseOptions;
+
+import java.util.Properties;
+
+import static com.typesafe.config.ConfigFactory.parseProperties;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Loads the system properties accepted by a {@link SystemPropertyFilter}.
+ *
+ * <p>The {@link Config} is kept between evaluations, and only converted
+ * again when the size or hash code of the system properties has changed
+ * since it was made; checking those is much cheaper than converting
+ * hundreds of properties into a {@link Config} on every pass.</p>
+ */
+final class FilteredSystemPropertiesConfigSource
+extends BaseConfigSource {
+
+    private final SystemPropertyFilter filter;
+
+    private int size = -1;
+    private int hashCode;
+    private Config config;
+
+    FilteredSystemPropertiesConfigSource(SystemPropertyFilter filter) {
+        this.filter = checkNotNull(filter);
+    }
+
+    @Override
+    public synchronized Config load(Bindings bindings) {
+
+        checkNotNull(bindings);
+
+        Properties properties = System.getProperties();
+
+        // Hashtable's size and hashCode are each consistent snapshots,
+        // but not with each other; the next load will catch up.
+        int currentSize = properties.size();
+        int currentHashCode = properties.hashCode();
+
+        if (config == null
+                || currentSize != size
+                || currentHashCode != hashCode) {
+
+            config = convert(properties);
+            size = currentSize;
+            hashCode = currentHashCode;
+        }
+
+        return config;
+    }
+
+    private Config convert(Properties properties) {
+
+        Properties accepted = new Properties();
+
+        for (String key : properties.stringPropertyNames()) {
+
+            if (filter.accepts(key)) {
+
+                String value = properties.getProperty(key);
+
+                if (value != null) {
+                    accepted.setProperty(key, value);
+                }
+            }
+        }
+
+        return parseProperties(
+            accepted,
+            ConfigParseOptions.defaults()
+                .setOriginDescription("system properties")
+        );
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+            "ConfigSource { system properties: %s }",
+            filter
+        );
+    }
+}
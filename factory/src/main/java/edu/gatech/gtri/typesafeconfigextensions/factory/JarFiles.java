@@ -0,0 +1,209 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Reads the entries of jar files through {@link ZipFile} handles that are
+ * kept open until {@link #close()}, instead of through
+ * {@link java.net.JarURLConnection}, which looks the jar up in a global
+ * cache (or opens it again) and copies the entry through several buffered
+ * streams for every resource.
+ *
+ * <p>Each entry is read with a single copy into an array of exactly its
+ * size, from which the parser reads (and decodes) it.</p>
+ *
+ * <p>Once closed, entries are read through the URL's standard
+ * {@link java.net.JarURLConnection} again, so that URLs which outlive the
+ * load still work.</p>
+ */
+final class JarFiles {
+
+    private final Map<File, ZipFile> open = new HashMap<>();
+
+    private boolean closed;
+
+    /**
+     * A handler for the URL of the entry {@code entryName} in {@code jar}.
+     */
+    URLStreamHandler handler(File jar, String entryName) {
+        return new EntryHandler(checkNotNull(jar), checkNotNull(entryName));
+    }
+
+    /**
+     * Only opening the jar is synchronized; a {@link ZipFile} can be read
+     * by several threads at once, so resources in the same or different
+     * jars are read in parallel.
+     *
+     * @return {@code null} if closed, even if it was closed during the
+     *   read.
+     */
+    private byte[] read(File jar, String entryName) throws IOException {
+
+        ZipFile zipFile = zipFile(jar);
+
+        if (zipFile == null) {
+            return null;
+        }
+
+        try {
+            return read(zipFile, entryName);
+        } catch (IOException | IllegalStateException e) {
+
+            if (isClosed()) {
+                return null;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * @return {@code null} if closed.
+     */
+    private synchronized ZipFile zipFile(File jar) throws IOException {
+
+        if (closed) {
+            return null;
+        }
+
+        ZipFile zipFile = open.get(jar);
+
+        if (zipFile == null) {
+            zipFile = new ZipFile(jar);
+            open.put(jar, zipFile);
+        }
+
+        return zipFile;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return {@code null} if the jar has no such entry.
+     */
+    private static byte[] read(ZipFile zipFile, String entryName)
+    throws IOException {
+
+        ZipEntry entry = zipFile.getEntry(entryName);
+
+        if (entry == null) {
+            return null;
+        }
+
+        try (InputStream in = zipFile.getInputStream(entry)) {
+
+            long size = entry.getSize();
+
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                return ClasspathSnapshot.readBytes(in);
+            }
+
+            return readFully(in, (int) size);
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int size)
+    throws IOException {
+
+        byte[] bytes = new byte[size];
+        int offset = 0;
+
+        while (offset < size) {
+
+            int n = in.read(bytes, offset, size - offset);
+
+            if (n < 0) {
+                throw new IOException("Unexpected end of jar entry");
+            }
+
+            offset += n;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Closes every jar file that was opened. Failures to close are
+     * ignored; there is nothing useful to be done about them.
+     */
+    synchronized void close() {
+
+        closed = true;
+
+        for (ZipFile zipFile : open.values()) {
+            try {
+                zipFile.close();
+            } catch (IOException ignored) {
+                continue;
+            }
+        }
+
+        open.clear();
+    }
+
+    private final class EntryHandler extends URLStreamHandler {
+
+        private final File jar;
+        private final String entryName;
+
+        private EntryHandler(File jar, String entryName) {
+            this.jar = jar;
+            this.entryName = entryName;
+        }
+
+        @Override
+        protected URLConnection openConnection(final URL url) {
+
+            return new URLConnection(url) {
+
+                @Override
+                public void connect() { }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+
+                    byte[] bytes = read(jar, entryName);
+
+                    if (bytes == null) {
+                        // Closed, or the jar has changed since it was
+                        // indexed; let the JDK find the entry.
+                        return new URL(url.toExternalForm()).openStream();
+                    }
+
+                    return new ByteArrayInputStream(bytes);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+/**
+ * Receives measurements taken during {@link ConfigFactory#load()}.
+ *
+ * <p>Bind an instance with
+ * {@link ConfigFactory#withLoadListener(LoadListener)}. Its methods are
+ * called on the thread that called {@code load()}, after each pass's
+ * sources have all finished, so they don't need to be thread-safe unless
+ * the same listener is shared between concurrent loads.</p>
+ *
+ * @see LoadListeners
+ * @see ConfigFactory#loadWithReport()
+ */
+public interface LoadListener {
+
+    /**
+     * Called once for every evaluation of a {@link ConfigSource}.
+     *
+     * <p>Sources that are not evaluated during a pass (because their
+     * previous result could be reused, or because they were skipped by a
+     * {@link LoadPasses#withBootstrapPass() bootstrap pass}) are not
+     * reported for that pass.</p>
+     */
+    void sourceLoaded(SourceLoadReport report);
+
+    /**
+     * Called at the end of each pass, after
+     * {@link #sourceLoaded(SourceLoadReport)} has been called for all of
+     * the pass's sources.
+     */
+    void passCompleted(PassReport report);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Static methods for constructing {@link LoadListener}s.
+ */
+public final class LoadListeners {
+
+    private LoadListeners() { }
+
+    /**
+     * A {@link LoadListener} that logs a warning for every evaluation of a
+     * source that takes at least {@code threshold}.
+     *
+     * <p>Warnings are logged with {@link java.util.logging} to the logger
+     * named after {@link ConfigFactory}.</p>
+     */
+    public static LoadListener logSlowSources(
+        long threshold,
+        TimeUnit unit
+    ) {
+        return logSlowSources(
+            threshold,
+            unit,
+            Logger.getLogger(ConfigFactory.class.getName())
+        );
+    }
+
+    /**
+     * A {@link LoadListener} that logs a warning to {@code logger} for
+     * every evaluation of a source that takes at least {@code threshold}.
+     */
+    public static LoadListener logSlowSources(
+        long threshold,
+        TimeUnit unit,
+        final Logger logger
+    ) {
+        checkNotNull(logger);
+
+        final long thresholdNanos = checkNotNull(unit).toNanos(threshold);
+
+        return new LoadListener() {
+
+            @Override
+            public void sourceLoaded(SourceLoadReport report) {
+
+                if (report.wallTime(TimeUnit.NANOSECONDS) >= thresholdNanos
+                        && logger.isLoggable(Level.WARNING)) {
+
+                    logger.warning(String.format(
+                        "Config source %s took %d ms to load in pass %d",
+                        report.sourceName(),
+                        report.wallTime(TimeUnit.MILLISECONDS),
+                        report.pass()
+                    ));
+                }
+            }
+
+            @Override
+            public void passCompleted(PassReport report) { }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+/**
+ * How many times {@link ConfigFactory#load()} evaluates its
+ * {@link ConfigSource}s.
+ *
+ * <p>Each evaluation after the first binds the {@link Config} produced by
+ * the previous one, so that sources can use values produced by other
+ * sources. Bind an instance with
+ * {@link ConfigFactory#withLoadPasses(LoadPasses)}; if none is bound,
+ * {@link #twoPasses()} is used.</p>
+ */
+public final class LoadPasses {
+
+    private static final LoadPasses TWO_PASSES =
+        new LoadPasses(2, false, false);
+
+    private final int maximumPasses;
+    private final boolean untilFixedPoint;
+    private final boolean bootstrapPass;
+
+    private LoadPasses(
+        int maximumPasses,
+        boolean untilFixedPoint,
+        boolean bootstrapPass
+    ) {
+        this.maximumPasses = maximumPasses;
+        this.untilFixedPoint = untilFixedPoint;
+        this.bootstrapPass = bootstrapPass;
+    }
+
+    /**
+     * Evaluate the sources at most twice, and use the result of the
+     * second evaluation whether or not it differs from the first.
+     *
+     * <p>This is enough for a source to use values from any source that
+     * does not itself depend on the bound {@link Config}.</p>
+     */
+    public static LoadPasses twoPasses() {
+        return TWO_PASSES;
+    }
+
+    /**
+     * Keep evaluating the sources until the resulting {@link Config}
+     * stops changing.
+     *
+     * <p>This supports chains of indirection of any length, such as a
+     * file located {@link PathSpecifications#byKey(String) by key} which
+     * specifies the key of another file.</p>
+     *
+     * <p>Whether the {@link Config} changed between two evaluations is
+     * decided by comparing structural fingerprints of the two, so that
+     * earlier results need not be kept around to detect cycles.</p>
+     *
+     * <p>{@link ConfigFactory#load()} throws
+     * {@link IllegalStateException} if the {@link Config} has not
+     * stopped changing after {@code maximumPasses} evaluations, or if an
+     * evaluation produces the same {@link Config} as some evaluation
+     * before the previous one (in which case it would never stop
+     * changing).</p>
+     *
+     * @param maximumPasses At least 1.
+     */
+    public static LoadPasses untilFixedPoint(int maximumPasses) {
+
+        if (maximumPasses < 1) {
+            throw new IllegalArgumentException(String.format(
+                "maximumPasses must be at least 1, but was %d",
+                maximumPasses
+            ));
+        }
+
+        return new LoadPasses(maximumPasses, true, false);
+    }
+
+    /**
+     * Make the first evaluation a lightweight <i>bootstrap pass</i>, which
+     * only computes the values needed by sources that declare their keys
+     * as {@link ConfigKeyConsumer}s (such as
+     * {@link FileConfigSourceStep#byKey(String) files by key}).
+     *
+     * <p>During the bootstrap pass:</p>
+     * <ul>
+     *   <li>A {@link ConfigKeyConsumer} source is skipped if none of its
+     *     keys are present in the bound {@link Config}, because it would
+     *     not be able to load anything.</li>
+     *   <li>Only the declared keys are resolved, instead of the whole
+     *     merged {@link Config}.</li>
+     * </ul>
+     *
+     * <p>The full merge and resolve happen once, at the end. If any
+     * source reads paths of the bound {@link Config} that it did not
+     * declare, or a declared key can't be resolved on its own, the
+     * bootstrap pass falls back to resolving everything, so the result
+     * is the same either way.</p>
+     */
+    public LoadPasses withBootstrapPass() {
+        return new LoadPasses(maximumPasses, untilFixedPoint, true);
+    }
+
+    int maximumPasses() {
+        return maximumPasses;
+    }
+
+    boolean untilFixedPoint() {
+        return untilFixedPoint;
+    }
+
+    boolean bootstrapPass() {
+        return bootstrapPass;
+    }
+
+    @Override
+    public String toString() {
+
+        String passes;
+
+        if (untilFixedPoint) {
+            passes = String.format(
+                "until fixed point, at most %d",
+                maximumPasses
+            );
+        } else {
+            passes = String.valueOf(maximumPasses);
+        }
+
+        if (bootstrapPass) {
+            passes += ", with bootstrap pass";
+        }
+
+        return String.format("LoadPasses { %s }", passes);
+    }
+}
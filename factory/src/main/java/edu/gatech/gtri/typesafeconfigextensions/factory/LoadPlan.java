@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigResolveOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigKeyConsumers.consumedConfigKeys;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * A {@link ConfigFactory}'s sources and bindings, prepared once so that
+ * they can be {@link #load() loaded} many times.
+ *
+ * <p>Obtain one with {@link ConfigFactory#compile()}. Everything that
+ * does not depend on the sources' results is worked out when the plan is
+ * compiled: the order of the sources, the {@link ConfigResolveOptions},
+ * {@link LoadPasses}, {@link LoadListener} and {@link Executor} that are
+ * bound, and the keys that each {@link ConfigKeyConsumer} source
+ * declares. Each load then only evaluates and merges the sources.</p>
+ *
+ * <p>A plan is immutable and may be loaded from several threads at once.
+ * Changes made to the {@link ConfigFactory} after it was compiled do not
+ * affect it.</p>
+ */
+public final class LoadPlan {
+
+    // ordered from highest to lowest precedence
+    private final NamedConfigSource[] sources;
+    private final List<Set<String>> consumedKeys;
+    private final Set<String> allConsumedKeys;
+
+    private final HashMapBindings bindings;
+    private final Config boundConfig;
+    private final ConfigResolveOptions resolveOptions;
+    private final LoadPasses passes;
+    private final Binding<LoadListener> listener;
+    private final Executor executor;
+    private final ForkJoinPool mergePool;
+
+    LoadPlan(
+        Iterable<NamedConfigSource> sourcesFromHighestToLowestPrecedence,
+        HashMapBindings bindings,
+        ConfigResolveOptions resolveOptions,
+        LoadPasses passes
+    ) {
+        List<NamedConfigSource> sourceList = new ArrayList<>();
+        List<Set<String>> keys = new ArrayList<>();
+        Set<String> allKeys = new HashSet<>();
+
+        for (NamedConfigSource source
+                : checkNotNull(sourcesFromHighestToLowestPrecedence)) {
+
+            Set<String> sourceKeys = Collections.unmodifiableSet(
+                new HashSet<>(consumedConfigKeys(source)));
+
+            sourceList.add(source);
+            keys.add(sourceKeys);
+            allKeys.addAll(sourceKeys);
+        }
+
+        this.sources = sourceList.toArray(
+            new NamedConfigSource[sourceList.size()]);
+        this.consumedKeys = Collections.unmodifiableList(keys);
+        this.allConsumedKeys = Collections.unmodifiableSet(allKeys);
+
+        this.bindings = checkNotNull(bindings);
+        this.boundConfig = valueOrNull(bindings.get(Config.class));
+        this.resolveOptions = checkNotNull(resolveOptions);
+        this.passes = checkNotNull(passes);
+        this.listener = bindings.get(LoadListener.class);
+        this.executor = valueOrNull(bindings.get(Executor.class));
+
+        if (executor instanceof ForkJoinPool) {
+            this.mergePool = (ForkJoinPool) executor;
+        } else {
+            this.mergePool = null;
+        }
+    }
+
+    private static <A> A valueOrNull(Binding<A> binding) {
+
+        if (binding.isPresent()) {
+            return binding.get();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link ConfigFactory#load()} on the factory this plan was
+     * compiled from.
+     */
+    public Config load() {
+        return new MultiPassLoad(this, valueOrNull(listener)).load();
+    }
+
+    /**
+     * Same as {@link ConfigFactory#loadWithReport()} on the factory this
+     * plan was compiled from.
+     */
+    public LoadReport loadWithReport() {
+
+        LoadReport.Recorder recorder = new LoadReport.Recorder(listener);
+
+        return recorder.report(new MultiPassLoad(this, recorder).load());
+    }
+
+    /**
+     * Same as {@link ConfigFactory#loadAsync(Executor)} on the factory
+     * this plan was compiled from.
+     */
+    public Future<Config> loadAsync(Executor executor) {
+
+        checkNotNull(executor);
+
+        FutureTask<Config> task = new FutureTask<>(
+            new Callable<Config>() {
+
+                @Override
+                public Config call() {
+                    return load();
+                }
+            }
+        );
+
+        executor.execute(task);
+
+        return task;
+    }
+
+    int sourceCount() {
+        return sources.length;
+    }
+
+    NamedConfigSource source(int index) {
+        return sources[index];
+    }
+
+    /**
+     * The keys declared by the source at {@code index} if it is a
+     * {@link ConfigKeyConsumer}, or the empty set otherwise.
+     */
+    Set<String> consumedKeys(int index) {
+        return consumedKeys.get(index);
+    }
+
+    /**
+     * The union of all of the sources' {@link #consumedKeys(int)}.
+     */
+    Set<String> allConsumedKeys() {
+        return allConsumedKeys;
+    }
+
+    HashMapBindings bindings() {
+        return bindings;
+    }
+
+    /**
+     * The {@link Config} bound in the factory's {@link #bindings()}, or
+     * {@code null} if none is bound.
+     */
+    Config boundConfig() {
+        return boundConfig;
+    }
+
+    ConfigResolveOptions resolveOptions() {
+        return resolveOptions;
+    }
+
+    LoadPasses passes() {
+        return passes;
+    }
+
+    /**
+     * The bound {@link Executor}, or {@code null} if none is bound.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    /**
+     * The bound {@link Executor} if it is a {@link ForkJoinPool}, or
+     * {@code null} otherwise.
+     */
+    ForkJoinPool mergePool() {
+        return mergePool;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder str = new StringBuilder("LoadPlan { sources: [");
+
+        for (int i = 0; i < sources.length; i++) {
+
+            if (i != 0) {
+                str.append(", ");
+            }
+
+            str.append(sources[i].name());
+        }
+
+        return str.append("], passes: ").append(passes).append(" }")
+            .toString();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A loaded {@link Config}, along with measurements of how it was loaded.
+ *
+ * @see ConfigFactory#loadWithReport()
+ */
+public final class LoadReport {
+
+    private final Config config;
+    private final List<PassReport> passes;
+
+    private LoadReport(Config config, List<PassReport> passes) {
+        this.config = checkNotNull(config);
+        this.passes = unmodifiableList(new ArrayList<>(passes));
+    }
+
+    /**
+     * The {@link Config} that {@link ConfigFactory#load()} returned.
+     */
+    public Config config() {
+        return config;
+    }
+
+    public List<PassReport> passes() {
+        return passes;
+    }
+
+    /**
+     * Every evaluation of every source, in the order in which they were
+     * reported.
+     */
+    public List<SourceLoadReport> sources() {
+
+        List<SourceLoadReport> sources = new ArrayList<>();
+
+        for (PassReport pass : passes) {
+            sources.addAll(pass.sources());
+        }
+
+        return unmodifiableList(sources);
+    }
+
+    /**
+     * A multi-line summary, with one line per pass and one line per
+     * source evaluation.
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder str = new StringBuilder("LoadReport {\n");
+
+        for (PassReport pass : passes) {
+
+            str.append(String.format(
+                "  pass %d: merge %d ms, resolve %d ms, %d keys%n",
+                pass.pass(),
+                pass.mergeTime(TimeUnit.MILLISECONDS),
+                pass.resolveTime(TimeUnit.MILLISECONDS),
+                pass.keyCount()
+            ));
+
+            for (SourceLoadReport source : pass.sources()) {
+
+                str.append(String.format(
+                    "    %s: %d ms, %d bytes, %d keys%n",
+                    source.sourceName(),
+                    source.wallTime(TimeUnit.MILLISECONDS),
+                    source.bytesRead(),
+                    source.keyCount()
+                ));
+            }
+        }
+
+        return str.append("}").toString();
+    }
+
+    /**
+     * Collects the reports for a {@link LoadReport}, passing them on to
+     * another listener (if there is one) as well.
+     */
+    static final class Recorder implements LoadListener {
+
+        private final Binding<LoadListener> next;
+        private final List<PassReport> passes = new ArrayList<>();
+
+        Recorder(Binding<LoadListener> next) {
+            this.next = checkNotNull(next);
+        }
+
+        @Override
+        public void sourceLoaded(SourceLoadReport report) {
+
+            if (next.isPresent()) {
+                next.get().sourceLoaded(report);
+            }
+        }
+
+        @Override
+        public void passCompleted(PassReport report) {
+
+            passes.add(checkNotNull(report));
+
+            if (next.isPresent()) {
+                next.get().passCompleted(report);
+            }
+        }
+
+        LoadReport report(Config config) {
+            return new LoadReport(config, passes);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.typesafe.config.ConfigFactory.parseFileAnySyntax;
+import static com.typesafe.config.ConfigFactory.parseReader;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Makes {@link ConfigFactory#configFile() config files} be read through a
+ * memory-mapped buffer, decoding UTF-8 in bulk directly from the mapping
+ * rather than through the library's buffered streams.
+ *
+ * <p>Bind an instance with
+ * {@link ConfigFactory#withMappedFileParse(MappedFileParse)}; without
+ * one, the library reads each file itself.</p>
+ *
+ * <p>Files of up to the {@link #withBulkDecodeLimit(int) bulk decode
+ * limit} are decoded with a single call into one {@link CharBuffer}.
+ * Larger files are decoded in chunks of {@link #CHUNK_CHARS} characters
+ * as the parser reads them, so that they are never copied onto the heap
+ * in full.</p>
+ *
+ * <p>The parser is given the decoded text rather than the file, so the
+ * values' {@link com.typesafe.config.ConfigOrigin origins} have the same
+ * descriptions and line numbers as the library would give them, but no
+ * {@link com.typesafe.config.ConfigOrigin#filename() filename} or
+ * {@link com.typesafe.config.ConfigOrigin#url() URL}. This is why it is
+ * not the default.</p>
+ *
+ * <p>The library resolves a file's {@code include}s relative to the
+ * file, which it can only do when it reads the file itself; so files
+ * that mention {@code include}, that are named by a path matching several
+ * files, or whose origin description the parse options override, are
+ * handed to the library as usual.</p>
+ */
+public final class MappedFileParse {
+
+    /**
+     * The number of characters decoded at a time from larger files.
+     */
+    static final int CHUNK_CHARS = 64 * 1024;
+
+    private static final int DEFAULT_BULK_DECODE_LIMIT = 4 * 1024 * 1024;
+
+    private final int bulkDecodeLimit;
+
+    private MappedFileParse(int bulkDecodeLimit) {
+        this.bulkDecodeLimit = bulkDecodeLimit;
+    }
+
+    /**
+     * Decodes files of up to 4 MiB all at once.
+     */
+    public static MappedFileParse defaults() {
+        return new MappedFileParse(DEFAULT_BULK_DECODE_LIMIT);
+    }
+
+    /**
+     * Decodes files of up to {@code bytes} bytes all at once, and larger
+     * files in chunks.
+     */
+    public static MappedFileParse withBulkDecodeLimit(int bytes) {
+
+        if (bytes < 0) {
+            throw new IllegalArgumentException(
+                "bulk decode limit must not be negative");
+        }
+
+        return new MappedFileParse(bytes);
+    }
+
+    /**
+     * Equivalent to
+     * {@code com.typesafe.config.ConfigFactory.parseFileAnySyntax},
+     * except for the origins.
+     */
+    Config parse(Path path, ConfigParseOptions options) {
+
+        checkNotNull(path);
+        checkNotNull(options);
+
+        Path file = ConfigFiles.anySyntaxFile(path, options);
+
+        if (file == null || options.getOriginDescription() != null) {
+            return parseFileAnySyntax(path.toFile(), options);
+        }
+
+        ConfigSyntax syntax = options.getSyntax();
+
+        if (syntax == null) {
+            syntax = ConfigFiles.syntax(String.valueOf(file.getFileName()));
+        }
+
+        ByteBuffer bytes;
+
+        try {
+            bytes = map(file);
+        } catch (IOException e) {
+            return parseFileAnySyntax(path.toFile(), options);
+        }
+
+        if (bytes == null || ConfigFiles.mayInclude(bytes)) {
+            return parseFileAnySyntax(path.toFile(), options);
+        }
+
+        return parseReader(
+            new DecodingReader(bytes, bulkDecodeLimit),
+            options
+                .setSyntax(syntax)
+                .setOriginDescription(file.toFile().getPath())
+        );
+    }
+
+    /**
+     * @return {@code null} if the file is too large to map at once.
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+
+        try (FileChannel channel =
+                FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Decodes UTF-8 from a buffer as it is read, replacing malformed
+     * input the way {@link java.io.InputStreamReader} does.
+     *
+     * <p>UTF-8 never decodes to more characters than it has bytes, so a
+     * buffer of up to the bulk decode limit is decoded all at once.</p>
+     */
+    private static final class DecodingReader extends Reader {
+
+        private final ByteBuffer bytes;
+        private final CharsetDecoder decoder;
+        private final CharBuffer chars;
+
+        private boolean flushed;
+
+        private DecodingReader(ByteBuffer bytes, int bulkDecodeLimit) {
+
+            this.bytes = bytes;
+
+            this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+            int capacity;
+
+            if (bytes.remaining() <= bulkDecodeLimit) {
+                capacity = Math.max(bytes.remaining(), 1);
+            } else {
+                capacity = CHUNK_CHARS;
+            }
+
+            this.chars = CharBuffer.allocate(capacity);
+            this.chars.flip();
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!chars.hasRemaining()) {
+
+                if (flushed) {
+                    return -1;
+                }
+
+                decode();
+
+                if (!chars.hasRemaining()) {
+                    return -1;
+                }
+            }
+
+            int n = Math.min(length, chars.remaining());
+            chars.get(buffer, offset, n);
+
+            return n;
+        }
+
+        /**
+         * Decodes as much as fits into {@code chars}. The whole input is
+         * available, so every call is at the end of input.
+         */
+        private void decode() {
+
+            chars.clear();
+
+            CoderResult result = decoder.decode(bytes, chars, true);
+
+            if (result.isUnderflow()) {
+                result = decoder.flush(chars);
+                flushed = result.isUnderflow();
+            }
+
+            chars.flip();
+        }
+
+        @Override
+        public void close() { }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "MappedFileParse { bulk decode limit %d }", bulkDecodeLimit);
+    }
+}
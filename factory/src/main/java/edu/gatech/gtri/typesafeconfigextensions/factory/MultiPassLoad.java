@@ -0,0 +1,476 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import edu.gatech.gtri.typesafeconfigextensions.internal.LoadEvents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory.emptyConfig;
+import static edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFingerprint.fingerprint;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * The repeated evaluation of a {@link LoadPlan}'s {@link ConfigSource}s
+ * performed by {@link LoadPlan#load()}.
+ *
+ * <p>Each source's use of the bound {@link Config} is recorded in a
+ * {@link ConfigReads}: a source that looks the {@link Config} up reads
+ * its declared {@link ConfigKeyConsumer} keys, or all of it if it declares
+ * none. After each pass, only the sources whose reads would give
+ * different results against the new {@link Config} are evaluated again;
+ * the others keep their previous results.</p>
+ *
+ * <p>The load, each source's evaluation and each resolve are recorded as
+ * {@link LoadEvents Flight Recorder events}.</p>
+ *
+ * @see LoadPasses
+ */
+final class MultiPassLoad {
+
+    private final LoadPlan plan;
+    private final LoadListener listener;
+
+    private final ConfigReads[] reads;
+    private final Config[] sourceConfigs;
+    private final SourceStatistics[] statistics;
+
+    private int lastPass;
+
+    /**
+     * @param listener The {@link LoadListener} to report to, or
+     *   {@code null} for none.
+     */
+    MultiPassLoad(LoadPlan plan, LoadListener listener) {
+        this.plan = checkNotNull(plan);
+        this.listener = listener;
+
+        int sourceCount = plan.sourceCount();
+        this.reads = new ConfigReads[sourceCount];
+        this.sourceConfigs = new Config[sourceCount];
+        this.statistics = new SourceStatistics[sourceCount];
+    }
+
+    Config load() {
+
+        LoadEvents.Event event = LoadEvents.begin(LoadEvents.Type.LOAD, "", 0);
+
+        try {
+            return loadInPasses();
+        } finally {
+            event.pass(lastPass).commit();
+        }
+    }
+
+    private Config loadInPasses() {
+
+        List<Integer> stale = new ArrayList<>();
+
+        for (int i = 0; i < plan.sourceCount(); i++) {
+            stale.add(i);
+        }
+
+        LoadPasses passes = plan.passes();
+        HashMapBindings passBindings = plan.bindings();
+        Map<Long, Integer> fingerprints = new HashMap<>();
+        List<Config> passConfigs = new ArrayList<>();
+
+        for (int pass = 1; true; pass++) {
+
+            lastPass = pass;
+            boolean bootstrap = pass == 1 && passes.bootstrapPass();
+
+            if (bootstrap) {
+                stale = skipUntilKeysArePresent(stale);
+            }
+
+            evaluate(pass, stale, passBindings);
+
+            long mergeStart = System.nanoTime();
+            Config merged = merge();
+            long resolveStart = System.nanoTime();
+            LoadEvents.Event resolveEvent =
+                LoadEvents.begin(LoadEvents.Type.RESOLVE, "", pass);
+            Config config;
+
+            if (bootstrap) {
+                config = resolveConsumedKeys(merged);
+            } else {
+                config = merged.resolve(plan.resolveOptions());
+            }
+
+            resolveEvent.commit();
+
+            long resolveEnd = System.nanoTime();
+            Config result = null;
+
+            if (passes.untilFixedPoint()) {
+
+                Integer earlierPass = fingerprints.put(
+                    fingerprint(config), pass);
+                passConfigs.add(config);
+
+                // Different Configs can have the same fingerprint.
+                if (earlierPass != null
+                        && config.equals(passConfigs.get(earlierPass - 1))) {
+
+                    if (earlierPass != pass - 1) {
+                        throw new IllegalStateException(String.format(
+                            "Config sources do not converge: pass %d "
+                                + "produced the same Config as pass %d",
+                            pass,
+                            earlierPass
+                        ));
+                    }
+
+                    result = config;
+                }
+            }
+
+            if (result == null) {
+
+                stale = staleIn(config);
+
+                if (stale.isEmpty() || (pass >= passes.maximumPasses()
+                        && !passes.untilFixedPoint())) {
+
+                    result = finish(merged, config, bootstrap, pass);
+                    resolveEnd = System.nanoTime();
+                }
+            }
+
+            if (result != null) {
+                passCompleted(pass, resolveStart - mergeStart,
+                    resolveEnd - resolveStart, result);
+                return result;
+            }
+
+            passCompleted(pass, resolveStart - mergeStart,
+                resolveEnd - resolveStart, config);
+
+            if (pass >= passes.maximumPasses()) {
+                throw new IllegalStateException(String.format(
+                    "Config sources did not converge within %d passes",
+                    pass
+                ));
+            }
+
+            passBindings = plan.bindings().set(Config.class, config);
+        }
+    }
+
+    /**
+     * A bootstrap pass may have resolved only part of the merged
+     * {@link Config}; the result of a load is always fully resolved.
+     */
+    private Config finish(
+        Config merged,
+        Config config,
+        boolean bootstrap,
+        int pass
+    ) {
+        if (!bootstrap) {
+            return config;
+        }
+
+        LoadEvents.Event event =
+            LoadEvents.begin(LoadEvents.Type.RESOLVE, "", pass);
+
+        Config resolved = merged.resolve(plan.resolveOptions());
+
+        event.commit();
+
+        return resolved;
+    }
+
+    /**
+     * Removes the {@link ConfigKeyConsumer} sources none of whose keys are
+     * present in the bound {@link Config}, recording their keys as read so
+     * that they are evaluated as soon as one of the keys appears.
+     */
+    private List<Integer> skipUntilKeysArePresent(List<Integer> indexes) {
+
+        Config boundConfig = plan.boundConfig();
+        List<Integer> remaining = new ArrayList<>();
+
+        for (int i : indexes) {
+
+            Set<String> keys = plan.consumedKeys(i);
+
+            if (keys.isEmpty() || anyPresent(boundConfig, keys)) {
+                remaining.add(i);
+                continue;
+            }
+
+            ConfigReads skipped = new ConfigReads(boundConfig);
+
+            for (String key : keys) {
+                skipped.readPath(key);
+            }
+
+            reads[i] = skipped;
+            sourceConfigs[i] = emptyConfig();
+        }
+
+        return remaining;
+    }
+
+    private static boolean anyPresent(Config config, Set<String> keys) {
+
+        if (config == null) {
+            return false;
+        }
+
+        for (String key : keys) {
+
+            try {
+
+                if (config.hasPath(key)) {
+                    return true;
+                }
+
+            } catch (ConfigException ignored) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Resolves only the keys declared by {@link ConfigKeyConsumer} sources,
+     * if that is enough for every source that read the bound
+     * {@link Config}; otherwise resolves all of {@code merged}.
+     */
+    private Config resolveConsumedKeys(Config merged) {
+
+        for (int i = 0; i < plan.sourceCount(); i++) {
+
+            if (!reads[i].readOnly(plan.consumedKeys(i))) {
+                return merged.resolve(plan.resolveOptions());
+            }
+        }
+
+        try {
+
+            Config config = emptyConfig();
+
+            for (String key : plan.allConsumedKeys()) {
+                config = config.withFallback(merged.withOnlyPath(key));
+            }
+
+            // Substitutions may refer to paths outside of the keys, or
+            // (if optional) silently resolve to nothing without them.
+            if (isResolved(config.root())) {
+                return config;
+            }
+
+        } catch (ConfigException ignored) { }
+
+        return merged.resolve(plan.resolveOptions());
+    }
+
+    /**
+     * Values containing substitutions throw
+     * {@link ConfigException.NotResolved} when they are inspected.
+     */
+    private static boolean isResolved(ConfigValue value) {
+
+        try {
+
+            switch (value.valueType()) {
+
+                case OBJECT:
+
+                    for (Map.Entry<String, ConfigValue> entry
+                            : ((ConfigObject) value).entrySet()) {
+
+                        if (!isResolved(entry.getValue())) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+
+                case LIST:
+
+                    for (ConfigValue element : (ConfigList) value) {
+
+                        if (!isResolved(element)) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+
+                default:
+                    return true;
+            }
+
+        } catch (ConfigException.NotResolved e) {
+            return false;
+        }
+    }
+
+    private void evaluate(
+        int pass,
+        List<Integer> indexes,
+        HashMapBindings passBindings
+    ) {
+
+        List<Callable<Config>> loads = new ArrayList<>();
+
+        Arrays.fill(statistics, null);
+
+        for (int i : indexes) {
+
+            HashMapBindings sourceBindings = passBindings;
+            SourceStatistics sourceStatistics = null;
+
+            if (listener != null) {
+                sourceStatistics = new SourceStatistics();
+                sourceBindings = passBindings.set(
+                    SourceStatistics.class, sourceStatistics);
+            }
+
+            ReadTrackingBindings tracking =
+                ReadTrackingBindings.trackingReads(
+                    sourceBindings, plan.consumedKeys(i));
+
+            reads[i] = tracking.reads();
+            statistics[i] = sourceStatistics;
+            loads.add(SourceLoader.loading(
+                plan.source(i), tracking, sourceStatistics, pass));
+        }
+
+        List<Config> configs = SourceLoader.loadAll(loads, plan.executor());
+
+        for (int j = 0; j < indexes.size(); j++) {
+            sourceConfigs[indexes.get(j)] = configs.get(j);
+        }
+    }
+
+    /**
+     * Reports the sources evaluated during the pass, then the pass itself,
+     * to the bound {@link LoadListener}.
+     */
+    private void passCompleted(
+        int pass,
+        long mergeNanos,
+        long resolveNanos,
+        Config config
+    ) {
+        if (listener == null) {
+            return;
+        }
+
+        List<SourceLoadReport> sourceReports = new ArrayList<>();
+
+        for (int i = 0; i < plan.sourceCount(); i++) {
+
+            SourceStatistics sourceStatistics = statistics[i];
+
+            if (sourceStatistics == null) {
+                continue;
+            }
+
+            SourceLoadReport report = new SourceLoadReport(
+                pass,
+                plan.source(i).name(),
+                sourceStatistics.nanos(),
+                sourceStatistics.bytesRead(),
+                keyCount(sourceConfigs[i].root())
+            );
+
+            sourceReports.add(report);
+            listener.sourceLoaded(report);
+        }
+
+        listener.passCompleted(new PassReport(
+            pass,
+            sourceReports,
+            mergeNanos,
+            resolveNanos,
+            keyCount(config.root())
+        ));
+    }
+
+    /**
+     * The number of paths with values, counting an unresolved value as one
+     * path.
+     */
+    private static int keyCount(ConfigValue value) {
+
+        try {
+
+            switch (value.valueType()) {
+
+                case OBJECT:
+
+                    int count = 0;
+
+                    // values() is a set, so equal siblings would be
+                    // counted once.
+                    for (Map.Entry<String, ConfigValue> entry
+                            : ((ConfigObject) value).entrySet()) {
+                        count += keyCount(entry.getValue());
+                    }
+
+                    return count;
+
+                case NULL:
+                    return 0;
+
+                default:
+                    return 1;
+            }
+
+        } catch (ConfigException.NotResolved e) {
+            return 1;
+        }
+    }
+
+    private List<Integer> staleIn(Config config) {
+
+        List<Integer> stale = new ArrayList<>();
+
+        for (int i = 0; i < plan.sourceCount(); i++) {
+
+            if (!reads[i].unchangedIn(config)) {
+                stale.add(i);
+            }
+        }
+
+        return stale;
+    }
+
+    private Config merge() {
+        return ConfigMerge.merge(
+            Arrays.asList(sourceConfigs), plan.mergePool());
+    }
+}
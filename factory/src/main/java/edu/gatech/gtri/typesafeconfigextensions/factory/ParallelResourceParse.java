@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigParseOptions;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import static com.typesafe.config.ConfigFactory.parseResources;
+import static com.typesafe.config.ConfigFactory.parseResourcesAnySyntax;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Parses classpath resources the same way
+ * {@code com.typesafe.config.ConfigFactory.parseResourcesAnySyntax} does,
+ * except that each resource URL (there is one {@code reference.conf} in
+ * nearly every library jar) is parsed on its own, in parallel.
+ *
+ * <p>The results are merged in the order in which the library would have
+ * merged them: {@code .conf}, then {@code .json}, then
+ * {@code .properties}, and the URLs of each name in the order that the
+ * class loader returns them.</p>
+ *
+ * <p>Each URL is parsed with {@code parseResources} through a class
+ * loader that finds only that URL under the resource's name, so that the
+ * parsed values have the same origins, and resolve includes the same
+ * way, as they would have otherwise.</p>
+ */
+final class ParallelResourceParse extends RecursiveTask<Config> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ClassLoader loader;
+    private final String name;
+    private final URL url;
+    private final ConfigParseOptions options;
+
+    private ParallelResourceParse(
+        ClassLoader loader,
+        String name,
+        URL url,
+        ConfigParseOptions options
+    ) {
+        this.loader = loader;
+        this.name = name;
+        this.url = url;
+        this.options = options;
+    }
+
+    static Config parse(
+        ClassLoader loader,
+        String resourceBasename,
+        ConfigParseOptions options,
+        ForkJoinPool pool
+    ) {
+        checkNotNull(loader);
+        checkNotNull(resourceBasename);
+        checkNotNull(options);
+        checkNotNull(pool);
+
+        // A fixed syntax changes which resources are read.
+        if (options.getSyntax() != null) {
+            return parseResourcesAnySyntax(loader, resourceBasename, options);
+        }
+
+        final List<ParallelResourceParse> parses = new ArrayList<>();
+
+        try {
+
+            for (String name
+                    : ClasspathSnapshot.resourceNames(resourceBasename)) {
+
+                Enumeration<URL> urls = loader.getResources(name);
+
+                while (urls.hasMoreElements()) {
+                    parses.add(new ParallelResourceParse(
+                        loader, name, urls.nextElement(), options));
+                }
+            }
+
+        } catch (IOException e) {
+            return parseResourcesAnySyntax(loader, resourceBasename, options);
+        }
+
+        // Nothing to parallelize; this also leaves the reporting of
+        // missing resources to the library.
+        if (parses.size() < 2) {
+            return parseResourcesAnySyntax(loader, resourceBasename, options);
+        }
+
+        pool.invoke(new RecursiveAction() {
+
+            @Override
+            protected void compute() {
+                invokeAll(parses);
+            }
+        });
+
+        List<Config> configs = new ArrayList<>();
+
+        for (ParallelResourceParse parse : parses) {
+            configs.add(parse.join());
+        }
+
+        return ConfigMerge.merge(configs, pool);
+    }
+
+    @Override
+    protected Config compute() {
+
+        return parseResources(
+            new SingleResourceLoader(loader, name, url),
+            name,
+            options
+        );
+    }
+
+    /**
+     * Finds {@code url} as the only resource named {@code name}, and
+     * everything else (such as included resources) through its parent.
+     */
+    private static final class SingleResourceLoader extends ClassLoader {
+
+        private final String name;
+        private final URL url;
+
+        private SingleResourceLoader(
+            ClassLoader parent,
+            String name,
+            URL url
+        ) {
+            super(parent);
+            this.name = name;
+            this.url = url;
+        }
+
+        @Override
+        public URL getResource(String resourceName) {
+
+            if (resourceName.equals(name)) {
+                return url;
+            }
+
+            return super.getResource(resourceName);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String resourceName)
+        throws IOException {
+
+            if (resourceName.equals(name)) {
+                return Collections.enumeration(
+                    Collections.singletonList(url));
+            }
+
+            return super.getResources(resourceName);
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigSyntax;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.jar.JarEntry;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * An in-memory cache of parsed {@link Config}s, keyed by a hash of the
+ * content that was parsed and the {@link ConfigParseOptions} it was parsed
+ * with, which can be shared by any number of {@link ConfigFactory}s.
+ *
+ * <p>Bind an instance with
+ * {@link ConfigFactory#withParseCache(ParseCache)}. It is used by
+ * {@link ConfigFactory#configFile() file},
+ * {@link ConfigFactory#configString(String) string} and
+ * {@link ConfigFactory#classpathResource(String) classpath resource}
+ * sources. A file or string is still read, in order to hash it, but it is
+ * only parsed if no {@link Config} is cached for the same content.
+ * Classpath resources in jars or directories are instead identified by
+ * the CRC and size that the jar records, or by their size and
+ * modification time, and are only read if nothing is cached for them.
+ * Files and resources that include other files are not cached, since the
+ * included files could change on their own.</p>
+ *
+ * <p>The cache holds at most a fixed number of {@link Config}s, evicting
+ * the least recently used. Entries for classpath resources (and for
+ * {@link ConfigParseOptions} with a class loader) only weakly reference
+ * the {@link ClassLoader}, and are removed once it has been garbage
+ * collected, so that a redeployed web application's class loader is not
+ * kept alive by the cache.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public final class ParseCache {
+
+    private static final int DEFAULT_MAXIMUM_ENTRIES = 1024;
+
+    private static final ParseCache SHARED =
+        new ParseCache(DEFAULT_MAXIMUM_ENTRIES);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maximumEntries;
+    private final Map<Key, Config> entries;
+    private final ReferenceQueue<ClassLoader> collectedLoaders =
+        new ReferenceQueue<>();
+
+    private ParseCache(int maximumEntries) {
+
+        this.maximumEntries = maximumEntries;
+        this.entries = new LinkedHashMap<Key, Config>(
+            INITIAL_CAPACITY, LOAD_FACTOR, true) {
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Key, Config> eldest
+            ) {
+                return size() > ParseCache.this.maximumEntries;
+            }
+        };
+    }
+
+    /**
+     * The process-wide cache, which holds up to
+     * {@value #DEFAULT_MAXIMUM_ENTRIES} {@link Config}s.
+     */
+    public static ParseCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * A new cache which holds up to {@code maximumEntries}
+     * {@link Config}s.
+     *
+     * @param maximumEntries At least 1.
+     */
+    public static ParseCache withMaximumEntries(int maximumEntries) {
+
+        if (maximumEntries < 1) {
+            throw new IllegalArgumentException(String.format(
+                "maximumEntries must be at least 1, but was %d",
+                maximumEntries
+            ));
+        }
+
+        return new ParseCache(maximumEntries);
+    }
+
+    /**
+     * Parses a file with {@code parse}, unless a {@link Config} parsed
+     * from a file with the same path and contents is cached.
+     *
+     * <p>As with {@code parseFileAnySyntax}, a {@code path} without a
+     * config extension stands for the one file with an extension, if
+     * there is exactly one.</p>
+     */
+    Config parseFile(
+        Path path,
+        ConfigParseOptions options,
+        Callable<Config> parse
+    ) {
+        checkNotNull(path);
+
+        if (!isCacheable(options)) {
+            return call(parse);
+        }
+
+        Path file = ConfigFiles.anySyntaxFile(path, options);
+
+        if (file == null) {
+            return call(parse);
+        }
+
+        byte[] contents;
+
+        try {
+            contents = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return call(parse);
+        }
+
+        if (ConfigFiles.mayInclude(contents)) {
+            return call(parse);
+        }
+
+        return get(
+            new Key(
+                "file: " + file.toAbsolutePath(),
+                ContentHash.of(contents),
+                null,
+                options,
+                collectedLoaders
+            ),
+            parse
+        );
+    }
+
+    /**
+     * Parses a string with {@code parse}, unless a {@link Config} parsed
+     * from an equal string is cached.
+     */
+    Config parseString(
+        String string,
+        ConfigParseOptions options,
+        Callable<Config> parse
+    ) {
+        checkNotNull(string);
+
+        if (!isCacheable(options)) {
+            return call(parse);
+        }
+
+        return get(
+            new Key(
+                "string",
+                ContentHash.of(string.getBytes(StandardCharsets.UTF_8)),
+                null,
+                options,
+                collectedLoaders
+            ),
+            parse
+        );
+    }
+
+    /**
+     * Parses classpath resources with {@code parse}, unless a
+     * {@link Config} parsed from resources with the same basename and
+     * contents, found by the same {@link ClassLoader}, is cached.
+     */
+    Config parseResources(
+        ClassLoader loader,
+        String resourceBasename,
+        ConfigParseOptions options,
+        Callable<Config> parse
+    ) {
+        checkNotNull(loader);
+        checkNotNull(resourceBasename);
+
+        if (!isCacheable(options)) {
+            return call(parse);
+        }
+
+        ContentHash hash = new ContentHash();
+        ClassLoader indexed = ClasspathIndex.indexed(loader);
+
+        try {
+
+            // The resources that are identified by a stamp rather than
+            // by their contents, which are only read on a miss.
+            List<URL> stamped = new ArrayList<>();
+
+            for (String name
+                    : ClasspathSnapshot.resourceNames(resourceBasename)) {
+
+                Enumeration<URL> urls = indexed.getResources(name);
+
+                while (urls.hasMoreElements()) {
+
+                    URL url = urls.nextElement();
+                    String stamp = stamp(url);
+
+                    hash.add(url.toString().getBytes(StandardCharsets.UTF_8));
+
+                    if (stamp != null) {
+                        hash.add(stamp.getBytes(StandardCharsets.UTF_8));
+                        stamped.add(url);
+                        continue;
+                    }
+
+                    byte[] contents = read(url);
+
+                    if (ConfigFiles.mayInclude(contents)) {
+                        return call(parse);
+                    }
+
+                    hash.add(contents);
+                }
+            }
+
+            Key key = new Key(
+                "classpath: " + resourceBasename,
+                hash.hex(),
+                loader,
+                options,
+                collectedLoaders
+            );
+
+            Config cached = cached(key);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            for (URL url : stamped) {
+
+                if (ConfigFiles.mayInclude(read(url))) {
+                    return call(parse);
+                }
+            }
+
+            return get(key, parse);
+
+        } catch (IOException e) {
+            return call(parse);
+        } finally {
+            ClasspathIndex.close(indexed);
+        }
+    }
+
+    /**
+     * Something that changes whenever the contents of the resource do,
+     * and that can be found without reading them: the CRC and size that
+     * a jar records for an entry, or the size and modification time of a
+     * file.
+     *
+     * @return {@code null} if the contents have to be read instead.
+     */
+    private static String stamp(URL url) throws IOException {
+
+        JarEntry entry = ClasspathSnapshot.jarEntry(url);
+
+        if (entry != null) {
+
+            if (entry.getCrc() == -1 || entry.getSize() == -1) {
+                return null;
+            }
+
+            return String.format("jar %x %d", entry.getCrc(), entry.getSize());
+        }
+
+        if (!url.getProtocol().equals("file")) {
+            return null;
+        }
+
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = Files.readAttributes(
+                Paths.get(url.toURI()), BasicFileAttributes.class);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+
+        return String.format(
+            "file %d %d",
+            attributes.size(),
+            attributes.lastModifiedTime().toMillis()
+        );
+    }
+
+    private static byte[] read(URL url) throws IOException {
+
+        try (InputStream in = url.openStream()) {
+            return ClasspathSnapshot.readBytes(in);
+        }
+    }
+
+    /**
+     * Custom includers can't be compared, so they aren't cached.
+     */
+    private static boolean isCacheable(ConfigParseOptions options) {
+        return checkNotNull(options).getIncluder() == null;
+    }
+
+    /**
+     * @return {@code null} if nothing is cached for {@code key}.
+     */
+    private Config cached(Key key) {
+
+        synchronized (entries) {
+            removeCollectedLoaders();
+            return entries.get(key);
+        }
+    }
+
+    private Config get(Key key, Callable<Config> parse) {
+
+        Config cached = cached(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        // Parsed without holding the lock; two threads may both parse the
+        // same content, which is harmless.
+        Config config = call(parse);
+
+        synchronized (entries) {
+            entries.put(key, config);
+        }
+
+        return config;
+    }
+
+    private void removeCollectedLoaders() {
+
+        if (collectedLoaders.poll() == null) {
+            return;
+        }
+
+        while (collectedLoaders.poll() != null) {
+            continue;
+        }
+
+        Iterator<Key> keys = entries.keySet().iterator();
+
+        while (keys.hasNext()) {
+
+            if (keys.next().loaderWasCollected()) {
+                keys.remove();
+            }
+        }
+    }
+
+    private static Config call(Callable<Config> parse) {
+
+        try {
+            return parse.call();
+        } catch (Exception e) {
+            throw SourceLoader.rethrow(e);
+        }
+    }
+
+    /**
+     * The number of {@link Config}s that are cached.
+     */
+    int size() {
+
+        synchronized (entries) {
+            removeCollectedLoaders();
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "ParseCache { maximum entries: %d }",
+            maximumEntries
+        );
+    }
+
+    private static final class Key {
+
+        private final String identity;
+        private final String contentHash;
+        private final LoaderReference loader;
+
+        private final ConfigSyntax syntax;
+        private final String originDescription;
+        private final boolean allowMissing;
+        private final LoaderReference optionsLoader;
+
+        private Key(
+            String identity,
+            String contentHash,
+            ClassLoader loader,
+            ConfigParseOptions options,
+            ReferenceQueue<ClassLoader> queue
+        ) {
+            this.identity = identity;
+            this.contentHash = contentHash;
+            this.loader = LoaderReference.to(loader, queue);
+            this.syntax = options.getSyntax();
+            this.originDescription = options.getOriginDescription();
+            this.allowMissing = options.getAllowMissing();
+            this.optionsLoader =
+                LoaderReference.to(options.getClassLoader(), queue);
+        }
+
+        private boolean loaderWasCollected() {
+            return LoaderReference.wasCollected(loader)
+                || LoaderReference.wasCollected(optionsLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) o;
+
+            return identity.equals(that.identity)
+                && contentHash.equals(that.contentHash)
+                && LoaderReference.same(loader, that.loader)
+                && syntax == that.syntax
+                && equal(originDescription, that.originDescription)
+                && allowMissing == that.allowMissing
+                && LoaderReference.same(optionsLoader, that.optionsLoader);
+        }
+
+        private static boolean equal(Object a, Object b) {
+
+            if (a == null) {
+                return b == null;
+            }
+
+            return a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Arrays.hashCode(new Object[] {
+                identity,
+                contentHash,
+                LoaderReference.hashCode(loader),
+                LoaderReference.hashCode(optionsLoader)
+            });
+        }
+    }
+
+    /**
+     * A weak reference to a {@link ClassLoader}, compared by the identity
+     * of the {@link ClassLoader}.
+     */
+    private static final class LoaderReference
+    extends WeakReference<ClassLoader> {
+
+        private final int identityHashCode;
+
+        private LoaderReference(
+            ClassLoader loader,
+            ReferenceQueue<ClassLoader> queue
+        ) {
+            super(loader, queue);
+            this.identityHashCode = System.identityHashCode(loader);
+        }
+
+        private static LoaderReference to(
+            ClassLoader loader,
+            ReferenceQueue<ClassLoader> queue
+        ) {
+            if (loader == null) {
+                return null;
+            }
+
+            return new LoaderReference(loader, queue);
+        }
+
+        private static boolean wasCollected(LoaderReference reference) {
+            return reference != null && reference.get() == null;
+        }
+
+        private static boolean same(LoaderReference a, LoaderReference b) {
+
+            if (a == null || b == null) {
+                return a == b;
+            }
+
+            ClassLoader loader = a.get();
+
+            return loader != null && loader == b.get();
+        }
+
+        private static int hashCode(LoaderReference reference) {
+
+            if (reference == null) {
+                return 0;
+            }
+
+            return reference.identityHashCode;
+        }
+    }
+}
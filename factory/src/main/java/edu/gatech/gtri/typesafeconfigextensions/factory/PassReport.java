@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Measurements of one pass of {@link ConfigFactory#load()}.
+ *
+ * @see LoadListener#passCompleted(PassReport)
+ */
+public final class PassReport {
+
+    private final int pass;
+    private final List<SourceLoadReport> sources;
+    private final long mergeNanos;
+    private final long resolveNanos;
+    private final int keyCount;
+
+    PassReport(
+        int pass,
+        List<SourceLoadReport> sources,
+        long mergeNanos,
+        long resolveNanos,
+        int keyCount
+    ) {
+        this.pass = pass;
+        this.sources = unmodifiableList(new ArrayList<>(
+            checkNotNullCollectionElements(sources)));
+        this.mergeNanos = mergeNanos;
+        this.resolveNanos = resolveNanos;
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * The number of the pass, starting at 1.
+     */
+    public int pass() {
+        return pass;
+    }
+
+    /**
+     * The sources that were evaluated during this pass, from highest to
+     * lowest precedence.
+     */
+    public List<SourceLoadReport> sources() {
+        return sources;
+    }
+
+    /**
+     * The time spent merging the sources' {@link Config}s together, which
+     * is what a chain of {@link Config#withFallback withFallback}s would
+     * do.
+     */
+    public long mergeTime(TimeUnit unit) {
+        return checkNotNull(unit).convert(mergeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time spent {@link Config#resolve() resolving} the merged
+     * {@link Config}.
+     */
+    public long resolveTime(TimeUnit unit) {
+        return checkNotNull(unit).convert(resolveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The number of paths with values in the {@link Config} produced by
+     * this pass.
+     */
+    public int keyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+            "PassReport { pass %d, %d sources, merge %d ms, "
+                + "resolve %d ms, %d keys }",
+            pass,
+            sources.size(),
+            mergeTime(TimeUnit.MILLISECONDS),
+            resolveTime(TimeUnit.MILLISECONDS),
+            keyCount
+        );
+    }
+}
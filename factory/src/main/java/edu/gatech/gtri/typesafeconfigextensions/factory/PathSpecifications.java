@@ -21,6 +21,8 @@ import com.typesafe.config.ConfigException;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
 
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 
@@ -69,42 +71,62 @@ public final class PathSpecifications {
      * path specification is "by key: _", where "_" is substituted
      * by the {@code key} parameter.</p>
      *
+     * <p>The returned path specification is a {@link ConfigKeyConsumer}
+     * whose only key is {@code key}.</p>
+     *
      * @param key
      *   The <i>path</i> (in the {@link Config} object) at which to look
      *   for a string representing a <i>path</i> (on the filesystem).
      */
-    public static PathSpecification byKey(final String key) {
+    public static PathSpecification byKey(String key) {
 
-        checkNotNull(key);
+        return new ByKey(checkNotNull(key));
+    }
 
-        return new PathSpecification() {
+    /**
+     * Declares its key as a {@link ConfigKeyConsumer}, so that it can be
+     * evaluated during a {@link LoadPasses#withBootstrapPass() bootstrap
+     * pass}.
+     */
+    private static final class ByKey
+    implements PathSpecification, ConfigKeyConsumer {
 
-            @Override
-            public OptionalPath path(Bindings bindings) {
+        private final String key;
 
-                checkNotNull(bindings);
+        private ByKey(String key) {
+            this.key = key;
+        }
 
-                Binding<Config> config = bindings.get(Config.class);
+        @Override
+        public OptionalPath path(Bindings bindings) {
 
-                if (config.isPresent()) {
+            checkNotNull(bindings);
 
-                    try {
+            Binding<Config> config = bindings.get(Config.class);
 
-                        return new SomePath(
-                            Paths.get(config.get().getString(key))
-                        );
+            if (config.isPresent()) {
 
-                    } catch (ConfigException.Missing ignored) { }
-                }
+                try {
 
-                return NO_PATH;
-            }
+                    return new SomePath(
+                        Paths.get(config.get().getString(key))
+                    );
 
-            @Override
-            public String name() {
-                return String.format("by key: %s", key);
+                } catch (ConfigException.Missing ignored) { }
             }
-        };
+
+            return NO_PATH;
+        }
+
+        @Override
+        public Set<String> consumedConfigKeys() {
+            return Collections.singleton(key);
+        }
+
+        @Override
+        public String name() {
+            return String.format("by key: %s", key);
+        }
     }
 
     private static final class SomePath implements OptionalPath {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+import java.util.Map;
+import java.util.Set;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * {@link Bindings} that records, in a {@link ConfigReads}, whether and how
+ * the bound {@link Config} is used.
+ *
+ * <p>Looking up the bound {@link Config} is recorded as a read of the
+ * source's declared {@link ConfigKeyConsumer#consumedConfigKeys() keys},
+ * or of everything if it declares none.</p>
+ */
+final class ReadTrackingBindings
+implements Bindings {
+
+    private final Bindings bindings;
+    private final Set<String> declaredKeys;
+    private final ConfigReads reads;
+
+    private ReadTrackingBindings(
+        Bindings bindings,
+        Set<String> declaredKeys,
+        ConfigReads reads
+    ) {
+        this.bindings = checkNotNull(bindings);
+        this.declaredKeys = checkNotNull(declaredKeys);
+        this.reads = checkNotNull(reads);
+    }
+
+    /**
+     * @param declaredKeys The keys that the source declares as a
+     *   {@link ConfigKeyConsumer}, or the empty set if it doesn't.
+     */
+    static ReadTrackingBindings trackingReads(
+        Bindings bindings,
+        Set<String> declaredKeys
+    ) {
+
+        checkNotNull(bindings);
+
+        Binding<Config> config = bindings.get(Config.class);
+        Config boundConfig = null;
+
+        if (config.isPresent()) {
+            boundConfig = config.get();
+        }
+
+        return new ReadTrackingBindings(
+            bindings,
+            declaredKeys,
+            new ConfigReads(boundConfig)
+        );
+    }
+
+    ConfigReads reads() {
+        return reads;
+    }
+
+    @Override
+    public <T> Binding<T> get(Class<T> type) {
+
+        checkNotNull(type);
+
+        Binding<T> binding = bindings.get(type);
+
+        if (type != Config.class) {
+            return binding;
+        }
+
+        if (!binding.isPresent()) {
+            reads.lookedUp();
+        } else if (declaredKeys.isEmpty()) {
+            reads.readEverything();
+        } else {
+            for (String key : declaredKeys) {
+                reads.readPath(key);
+            }
+        }
+
+        return binding;
+    }
+
+    /**
+     * The map exposes the bound {@link Config} directly, so calling this
+     * is recorded as a read of everything.
+     */
+    @Override
+    public Map<Class<?>, Object> asMap() {
+
+        reads.readEverything();
+
+        return bindings.asMap();
+    }
+}
@@ -18,10 +18,12 @@ package edu.gatech.gtri.typesafeconfigextensions.factory;
 
 import com.typesafe.config.Config;
 
+import java.util.Set;
+
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 
 final class SimpleNamedConfigSource
-implements NamedConfigSource {
+implements NamedConfigSource, ConfigKeyConsumer {
 
     private final ConfigSource configSource;
     private final String name;
@@ -47,6 +49,11 @@ implements NamedConfigSource {
         return configSource.load(checkNotNull(bindings));
     }
 
+    @Override
+    public Set<String> consumedConfigKeys() {
+        return ConfigKeyConsumers.consumedConfigKeys(configSource);
+    }
+
     @Override
     public String toString() {
         return String.format("ConfigSource { %s }", name);
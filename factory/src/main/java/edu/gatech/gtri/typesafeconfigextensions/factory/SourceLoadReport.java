@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Measurements of one evaluation of one {@link NamedConfigSource}.
+ *
+ * @see LoadListener#sourceLoaded(SourceLoadReport)
+ */
+public final class SourceLoadReport {
+
+    private final int pass;
+    private final String sourceName;
+    private final long nanos;
+    private final long bytesRead;
+    private final int keyCount;
+
+    SourceLoadReport(
+        int pass,
+        String sourceName,
+        long nanos,
+        long bytesRead,
+        int keyCount
+    ) {
+        this.pass = pass;
+        this.sourceName = checkNotNull(sourceName);
+        this.nanos = nanos;
+        this.bytesRead = bytesRead;
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * The number of the pass in which the source was evaluated, starting
+     * at 1.
+     */
+    public int pass() {
+        return pass;
+    }
+
+    /**
+     * The {@link ConfigSourceName#name() name} of the source.
+     */
+    public String sourceName() {
+        return sourceName;
+    }
+
+    /**
+     * How long the source took to load.
+     */
+    public long wallTime(TimeUnit unit) {
+        return checkNotNull(unit).convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How many bytes the source read, or -1 if it is not known.
+     *
+     * <p>File and string sources report this; others (such as classpath
+     * resources and JNDI) do not.</p>
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * The number of paths with values in the {@link Config} that the
+     * source returned.
+     */
+    public int keyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+            "SourceLoadReport { pass %d, %s, %d ms, %d bytes, %d keys }",
+            pass,
+            sourceName,
+            wallTime(TimeUnit.MILLISECONDS),
+            bytesRead,
+            keyCount
+        );
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import com.typesafe.config.Config;
+import edu.gatech.gtri.typesafeconfigextensions.internal.LoadEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Evaluates a list of {@link ConfigSource} loads, either one at a time
+ * on the calling thread or all at once on an {@link Executor}.
+ *
+ * <p>Either way, the results are returned in the same order as the
+ * loads, so folding them with {@code withFallback} gives the same
+ * {@link Config} regardless of how they were evaluated.</p>
+ */
+final class SourceLoader {
+
+    private SourceLoader() { }
+
+    static Callable<Config> loading(
+        ConfigSource source,
+        Bindings bindings
+    ) {
+        return new SourceLoad(
+            checkNotNull(source),
+            checkNotNull(bindings),
+            null,
+            null,
+            0
+        );
+    }
+
+    /**
+     * A load that is measured: its duration is recorded in
+     * {@code statistics} (if not {@code null}), and it emits a
+     * {@link LoadEvents.Type#SOURCE_LOAD} event.
+     */
+    static Callable<Config> loading(
+        NamedConfigSource source,
+        Bindings bindings,
+        SourceStatistics statistics,
+        int pass
+    ) {
+        return new SourceLoad(
+            checkNotNull(source),
+            checkNotNull(bindings),
+            statistics,
+            source.name(),
+            pass
+        );
+    }
+
+    private static final class SourceLoad implements Callable<Config> {
+
+        private final ConfigSource source;
+        private final Bindings bindings;
+        private final SourceStatistics statistics;
+        private final String name;
+        private final int pass;
+
+        private SourceLoad(
+            ConfigSource source,
+            Bindings bindings,
+            SourceStatistics statistics,
+            String name,
+            int pass
+        ) {
+            this.source = source;
+            this.bindings = bindings;
+            this.statistics = statistics;
+            this.name = name;
+            this.pass = pass;
+        }
+
+        @Override
+        public Config call() {
+
+            LoadEvents.Event event = null;
+
+            if (statistics != null) {
+                statistics.started();
+            }
+
+            if (name != null) {
+                event = LoadEvents.begin(
+                    LoadEvents.Type.SOURCE_LOAD, name, pass);
+            }
+
+            try {
+                return source.load(bindings);
+            } finally {
+
+                if (statistics != null) {
+                    statistics.finished();
+                }
+
+                if (event != null) {
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param executor The {@link Executor} to evaluate the loads on, or
+     *   {@code null} to evaluate them one at a time on the calling thread.
+     */
+    static List<Config> loadAll(
+        List<? extends Callable<Config>> loads,
+        Executor executor
+    ) {
+        checkNotNull(loads);
+
+        if (executor != null) {
+            return loadConcurrently(loads, executor);
+        } else {
+            return loadSequentially(loads);
+        }
+    }
+
+    private static List<Config> loadSequentially(
+        List<? extends Callable<Config>> loads
+    ) {
+        List<Config> configs = new ArrayList<>();
+
+        for (Callable<Config> load : loads) {
+
+            try {
+                configs.add(load.call());
+            } catch (Exception e) {
+                throw rethrow(e);
+            }
+        }
+
+        return configs;
+    }
+
+    private static List<Config> loadConcurrently(
+        List<? extends Callable<Config>> loads,
+        Executor executor
+    ) {
+        List<Future<Config>> tasks = new ArrayList<>();
+
+        try {
+
+            for (Callable<Config> load : loads) {
+
+                FutureTask<Config> task = new FutureTask<>(load);
+                executor.execute(task);
+                tasks.add(task);
+            }
+
+            List<Config> configs = new ArrayList<>();
+
+            for (int i = 0; i < tasks.size(); i++) {
+
+                configs.add(await(tasks.get(i)));
+            }
+
+            return configs;
+
+        } finally {
+
+            // If any source failed, don't leave the others running.
+            for (Future<Config> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    static Config await(Future<Config> task) {
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for a config source to load",
+                e
+            );
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * {@link ConfigSource#load(Bindings)} declares no checked exceptions,
+     * so the cause of an {@link ExecutionException} is rethrown as-is.
+     */
+    static RuntimeException rethrow(Throwable cause) {
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        throw new IllegalStateException(cause);
+    }
+}
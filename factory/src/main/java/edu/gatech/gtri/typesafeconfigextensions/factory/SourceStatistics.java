@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Measurements of one evaluation of one {@link ConfigSource}, collected
+ * while a {@link LoadListener} is bound.
+ *
+ * <p>An instance is bound in the {@link Bindings} given to the source, so
+ * that sources which know how many bytes they read can
+ * {@link #recordBytesRead(Bindings, long) record} it.</p>
+ */
+final class SourceStatistics {
+
+    private boolean started;
+    private boolean finished;
+    private long startNanos;
+    private long nanos;
+    private long bytesRead = -1;
+
+    synchronized void started() {
+
+        if (!started) {
+            started = true;
+            startNanos = System.nanoTime();
+        }
+    }
+
+    synchronized void finished() {
+
+        if (started && !finished) {
+            finished = true;
+            nanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    synchronized long nanos() {
+        return nanos;
+    }
+
+    /**
+     * @return -1 if the source didn't record how many bytes it read.
+     */
+    synchronized long bytesRead() {
+        return bytesRead;
+    }
+
+    synchronized void addBytesRead(long bytes) {
+
+        if (bytesRead < 0) {
+            bytesRead = 0;
+        }
+
+        bytesRead += bytes;
+    }
+
+    /**
+     * Whether the {@code bindings} given to a source are collecting
+     * statistics, so that it is worth measuring how many bytes it read.
+     */
+    static boolean isCollecting(Bindings bindings) {
+        return checkNotNull(bindings).get(SourceStatistics.class).isPresent();
+    }
+
+    /**
+     * Records that a source read {@code bytes} bytes, if the
+     * {@code bindings} it was given are collecting statistics.
+     */
+    static void recordBytesRead(Bindings bindings, long bytes) {
+
+        Binding<SourceStatistics> statistics =
+            checkNotNull(bindings).get(SourceStatistics.class);
+
+        if (statistics.isPresent()) {
+            statistics.get().addBytesRead(bytes);
+        }
+    }
+}
@@ -19,16 +19,41 @@ package edu.gatech.gtri.typesafeconfigextensions.factory;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigParseOptions;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+
 import static com.typesafe.config.ConfigFactory.parseString;
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 
+/**
+ * Parses a string.
+ *
+ * <p>The string never changes, so the parsed {@link Config} is kept for
+ * each {@link ConfigParseOptions} instance it has been parsed with (held
+ * weakly, since the options are normally the ones bound in a factory),
+ * and evaluating the source again costs nothing. A string that
+ * {@code include}s anything is parsed every time, because what it
+ * includes may change.</p>
+ */
 final class StringConfigSource
 extends BaseConfigSource {
 
     private final String configString;
+    private final boolean mayInclude;
+
+    private final Map<ConfigParseOptions, Config> parsed =
+        new WeakHashMap<>();
+
+    /**
+     * The result of parsing with no {@link ConfigParseOptions} bound.
+     */
+    private Config parsedWithoutOptions;
 
     StringConfigSource(String configString) {
         this.configString = checkNotNull(configString);
+        this.mayInclude = ConfigFiles.mayInclude(configString);
     }
 
     @Override
@@ -36,9 +61,75 @@ extends BaseConfigSource {
 
         checkNotNull(bindings);
 
-        Binding<ConfigParseOptions> parseOptions =
+        if (SourceStatistics.isCollecting(bindings)) {
+            SourceStatistics.recordBytesRead(
+                bindings,
+                configString.getBytes(StandardCharsets.UTF_8).length
+            );
+        }
+
+        final Binding<ConfigParseOptions> parseOptions =
             bindings.get(ConfigParseOptions.class);
 
+        if (mayInclude) {
+            return parseWithCache(bindings, parseOptions);
+        }
+
+        synchronized (parsed) {
+
+            Config config;
+
+            if (parseOptions.isPresent()) {
+                config = parsed.get(parseOptions.get());
+            } else {
+                config = parsedWithoutOptions;
+            }
+
+            if (config == null) {
+
+                config = parseWithCache(bindings, parseOptions);
+
+                if (parseOptions.isPresent()) {
+                    parsed.put(parseOptions.get(), config);
+                } else {
+                    parsedWithoutOptions = config;
+                }
+            }
+
+            return config;
+        }
+    }
+
+    /**
+     * Parses the string, or gets it from the {@link ParseCache} if one is
+     * bound.
+     */
+    private Config parseWithCache(
+        Bindings bindings,
+        final Binding<ConfigParseOptions> parseOptions
+    ) {
+        Binding<ParseCache> cache = bindings.get(ParseCache.class);
+
+        if (cache.isPresent()) {
+
+            return cache.get().parseString(
+                configString,
+                parseOptionsOrDefaults(parseOptions),
+                new Callable<Config>() {
+
+                    @Override
+                    public Config call() {
+                        return parse(parseOptions);
+                    }
+                }
+            );
+        }
+
+        return parse(parseOptions);
+    }
+
+    private Config parse(Binding<ConfigParseOptions> parseOptions) {
+
         if (parseOptions.isPresent()) {
             return parseString(configString, parseOptions.get());
         }
@@ -46,6 +137,16 @@ extends BaseConfigSource {
         return parseString(configString);
     }
 
+    private static ConfigParseOptions parseOptionsOrDefaults(
+        Binding<ConfigParseOptions> parseOptions
+    ) {
+        if (parseOptions.isPresent()) {
+            return parseOptions.get();
+        } else {
+            return ConfigParseOptions.defaults();
+        }
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Lists.listConcat;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Lists.listOfOne;
+import static java.util.Arrays.asList;
+
+/**
+ * Which system properties a
+ * {@link ConfigFactory#systemProperties(SystemPropertyFilter)} source
+ * loads, by key prefix.
+ *
+ * <p>A prefix matches whole path elements: {@code "akka"} matches the
+ * keys {@code akka} and {@code akka.loglevel}, but not
+ * {@code akkaTimeout}.</p>
+ *
+ * <p>A key is loaded if it matches one of the included prefixes (or no
+ * prefixes are included) and matches none of the excluded ones.</p>
+ */
+public final class SystemPropertyFilter {
+
+    private static final SystemPropertyFilter ALL = new SystemPropertyFilter(
+        Collections.<String>emptyList(),
+        Collections.<String>emptyList()
+    );
+
+    private final List<String> includedPrefixes;
+    private final List<String> excludedPrefixes;
+
+    private SystemPropertyFilter(
+        List<String> includedPrefixes,
+        List<String> excludedPrefixes
+    ) {
+        this.includedPrefixes = includedPrefixes;
+        this.excludedPrefixes = excludedPrefixes;
+    }
+
+    /**
+     * Every system property.
+     */
+    public static SystemPropertyFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Only the system properties whose keys match one of the prefixes.
+     */
+    public static SystemPropertyFilter including(
+        String firstPrefix,
+        String... morePrefixes
+    ) {
+        return ALL.andIncluding(firstPrefix, morePrefixes);
+    }
+
+    /**
+     * Also include the system properties whose keys match one of the
+     * prefixes.
+     */
+    public SystemPropertyFilter andIncluding(
+        String firstPrefix,
+        String... morePrefixes
+    ) {
+        List<String> prefixes = new ArrayList<>(includedPrefixes);
+        prefixes.addAll(prefixes(firstPrefix, morePrefixes));
+
+        return new SystemPropertyFilter(
+            Collections.unmodifiableList(prefixes),
+            excludedPrefixes
+        );
+    }
+
+    /**
+     * Leave out the system properties whose keys match one of the
+     * prefixes, such as {@code "java"}, {@code "sun"} and {@code "jdk"}.
+     */
+    public SystemPropertyFilter excluding(
+        String firstPrefix,
+        String... morePrefixes
+    ) {
+        List<String> prefixes = new ArrayList<>(excludedPrefixes);
+        prefixes.addAll(prefixes(firstPrefix, morePrefixes));
+
+        return new SystemPropertyFilter(
+            includedPrefixes,
+            Collections.unmodifiableList(prefixes)
+        );
+    }
+
+    private static List<String> prefixes(String first, String[] more) {
+
+        return checkNotNullCollectionElements(
+            listConcat(listOfOne(first), asList(more)));
+    }
+
+    boolean accepts(String key) {
+
+        checkNotNull(key);
+
+        if (!includedPrefixes.isEmpty()
+                && !matchesAny(key, includedPrefixes)) {
+            return false;
+        }
+
+        return !matchesAny(key, excludedPrefixes);
+    }
+
+    private static boolean matchesAny(String key, List<String> prefixes) {
+
+        for (String prefix : prefixes) {
+
+            if (key.equals(prefix) || key.startsWith(prefix + ".")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder str = new StringBuilder("SystemPropertyFilter {");
+
+        if (!includedPrefixes.isEmpty()) {
+            str.append(" including ").append(includedPrefixes);
+        }
+
+        if (!excludedPrefixes.isEmpty()) {
+            str.append(" excluding ").append(excludedPrefixes);
+        }
+
+        if (includedPrefixes.isEmpty() && excludedPrefixes.isEmpty()) {
+            str.append(" all");
+        }
+
+        return str.append(" }").toString();
+    }
+}
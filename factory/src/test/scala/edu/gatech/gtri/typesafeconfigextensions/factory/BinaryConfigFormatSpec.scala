@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory._
+import com.typesafe.config.{ConfigException, ConfigFactory => TypesafeConfigFactory}
+import java.nio.file.Files
+import scala.collection.JavaConverters._
+
+class BinaryConfigFormatSpec extends Specification {
+
+  "BinaryConfigFormat" >> {
+
+    val dir = Files.createTempDirectory("binary-config")
+
+    val config = """
+      a { b: "x", "c.d": true, e: false, f: null }
+      g: [1, 10000000000, 1.5, [ "h" ], { i: j }]
+      k: "ünïcödé"
+      """.toConfig
+
+    val file = dir.resolve("a" + BinaryConfigFormat.EXTENSION)
+    BinaryConfigFormat.write(config, file)
+
+    val fileWithOrigins = dir.resolve("b" + BinaryConfigFormat.EXTENSION)
+    BinaryConfigFormat.writeWithOrigins(config, fileWithOrigins)
+
+    "round trip" ! ( BinaryConfigFormat.read(file) shouldEqual config )
+
+    "round trip with origins" ! ( BinaryConfigFormat.read(fileWithOrigins) shouldEqual config )
+
+    "origins" ! (
+      (BinaryConfigFormat.read(file).getValue("a.b").origin.description
+        shouldEqual file.toString) and
+      (BinaryConfigFormat.read(fileWithOrigins).getValue("a.b").origin.description
+        shouldEqual config.getValue("a.b").origin.description) )
+
+    "unresolved Config" ! (
+      BinaryConfigFormat.write("a: ${b}, b: 1".toConfig, dir.resolve("c.bconf"))
+        must throwA[ConfigException.NotResolved] )
+
+    "not a binary config" ! {
+      val text = dir.resolve("d.bconf")
+      Files.write(text, "a: 1".getBytes("UTF-8"))
+      BinaryConfigFormat.read(text) must throwAn[IllegalArgumentException]
+    }
+
+    "corrupt lengths" ! {
+      val corrupt = dir.resolve("e.bconf")
+      val bytes = Files.readAllBytes(file)
+      // The length of the key dictionary, after the magic number, the
+      // version and the flags.
+      java.nio.ByteBuffer.wrap(bytes).putInt(9, -1)
+      Files.write(corrupt, bytes)
+      BinaryConfigFormat.read(corrupt) must throwAn[IllegalArgumentException]
+    }
+
+    "numbers keep their values, not their text" ! {
+      val numbers = "x: 1.50, y: 1e3, z: [1.50], w: 2".toConfig
+      val numbersFile = dir.resolve("f.bconf")
+      BinaryConfigFormat.write(numbers, numbersFile)
+      val read = BinaryConfigFormat.read(numbersFile)
+      (read shouldEqual numbers) and (read.getString("x") shouldEqual "1.5") and
+        (read.getDouble("y") shouldEqual 1000.0) and (read.getString("w") shouldEqual "2")
+    }
+
+    "large objects with origins" ! {
+      val large = TypesafeConfigFactory.parseMap((1 to 20000).map(i => ("k" + i) -> Integer.valueOf(i)).toMap.asJava)
+      val largeFile = dir.resolve("h.bconf")
+      BinaryConfigFormat.writeWithOrigins(large, largeFile)
+      val start = System.nanoTime
+      val read = BinaryConfigFormat.read(largeFile)
+      (read shouldEqual large) and ((System.nanoTime - start) / 1000000 must be_<(2000L))
+    }
+
+    "loaded by configFile" ! (
+      emptyConfigFactory.bindDefaults.withSources(
+        configFile byPath file,
+        configFile byPath dir.resolve("missing.bconf")
+      ).fromHighestToLowestPrecedence.load shouldEqual config )
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import com.typesafe.config.ConfigFactory.parseResourcesAnySyntax
+import java.io.FileOutputStream
+import java.net.{URL, URLClassLoader}
+import java.nio.file.{Files, Path}
+import java.util.jar.{Attributes, JarEntry, JarOutputStream, Manifest}
+import scala.collection.JavaConverters._
+
+class ClasspathIndexSpec extends Specification {
+
+  "ClasspathIndex" >> {
+
+    val dir = Files.createTempDirectory("classpath-index")
+
+    def jar(path: Path, classPath: Option[String], entries: (String, String)*): Path = {
+      val manifest = new Manifest
+      manifest.getMainAttributes.put(Attributes.Name.MANIFEST_VERSION, "1.0")
+      classPath foreach { manifest.getMainAttributes.put(Attributes.Name.CLASS_PATH, _) }
+      val out = new JarOutputStream(new FileOutputStream(path.toFile), manifest)
+      for ((name, content) <- entries) {
+        out.putNextEntry(new JarEntry(name))
+        out.write(content.getBytes("UTF-8"))
+      }
+      out.close()
+      path
+    }
+
+    def urls(e: java.util.Enumeration[URL]): List[String] = e.asScala.toList.map(_.toString)
+
+    val a = jar(dir.resolve("a.jar"), Some("b.jar"), "index-test.conf" -> "a: 1", "other.txt" -> "x")
+    jar(dir.resolve("b.jar"), None, "index-test.conf" -> "b: 2", "index-test.json" -> """{ "c": 3 }""")
+    val d = Files.createDirectory(dir.resolve("d"))
+    Files.write(d.resolve("index-test.conf"), "d: 4".getBytes("UTF-8"))
+
+    val loader = new URLClassLoader(Array(a.toUri.toURL, d.toUri.toURL), null)
+    val indexed = ClasspathIndex.indexed(loader)
+
+    "finds the same resources as the class loader" ! (
+      (urls(indexed.getResources("index-test.conf")) shouldEqual urls(loader.getResources("index-test.conf")))
+        and (urls(indexed.getResources("index-test.conf")) must haveSize(3))
+        and (urls(indexed.getResources("index-test.json")) shouldEqual urls(loader.getResources("index-test.json"))) )
+
+    "delegates other resources" ! (
+      urls(indexed.getResources("other.txt")) shouldEqual urls(loader.getResources("other.txt")) )
+
+    "parses the same Config" ! (
+      parseResourcesAnySyntax(indexed, "index-test") shouldEqual parseResourcesAnySyntax(loader, "index-test") )
+
+    "reads jar entries while open and after being closed" ! {
+      val reading = ClasspathIndex.indexed(loader)
+      val url = reading.getResources("index-test.conf").nextElement()
+      def contents = scala.io.Source.fromInputStream(url.openStream(), "UTF-8").mkString
+      val open = contents
+      ClasspathIndex.close(reading)
+      (open shouldEqual "a: 1") and (contents shouldEqual "a: 1")
+    }
+
+    "reads jar entries from several threads at once" ! {
+      val reading = ClasspathIndex.indexed(loader)
+      val urls = reading.getResources("index-test.conf").asScala.toList.filter(_.getProtocol == "jar")
+      val pool = java.util.concurrent.Executors.newFixedThreadPool(8)
+      try {
+        val reads = (1 to 200).map { i =>
+          val url = urls(i % urls.size)
+          pool.submit(new java.util.concurrent.Callable[String] {
+            def call = scala.io.Source.fromInputStream(url.openStream(), "UTF-8").mkString
+          })
+        }
+        reads.map(_.get).toSet shouldEqual Set("a: 1", "b: 2")
+      } finally {
+        pool.shutdown()
+        ClasspathIndex.close(reading)
+      }
+    }
+
+    "is rebuilt when a jar changes" ! {
+      val e = jar(dir.resolve("e.jar"), None, "index-test-e.conf" -> "e: 1")
+      val eLoader = new URLClassLoader(Array(e.toUri.toURL), null)
+      val before = urls(ClasspathIndex.indexed(eLoader).getResources("index-test-e.conf"))
+      jar(e, None, "index-test-f.conf" -> "f: 1")
+      e.toFile.setLastModified(e.toFile.lastModified + 2000)
+      (before must haveSize(1)) and
+        (urls(ClasspathIndex.indexed(eLoader).getResources("index-test-e.conf")) must beEmpty)
+    }
+
+    "is not used for class loaders that find resources their own way" ! {
+      val custom = new URLClassLoader(Array(a.toUri.toURL), null) {
+        override def findResources(name: String) = super.findResources(name)
+      }
+      ClasspathIndex.indexed(custom) must beTheSameAs(custom)
+    }
+
+    "is not used for a child loader that overrides getResources, as webapp loaders do" ! {
+      val webapp = new URLClassLoader(Array(d.toUri.toURL), loader) {
+        override def getResources(name: String) = {
+          val own = findResources(name).asScala.toList
+          val parents = getParent.getResources(name).asScala.toList
+          java.util.Collections.enumeration((own ++ parents).asJava)
+        }
+      }
+      (ClasspathIndex.indexed(webapp) must beTheSameAs(webapp)) and
+        (parseResourcesAnySyntax(ClasspathIndex.indexed(webapp), "index-test").getInt("a") shouldEqual 1)
+    }
+
+    "is not used below a loader that isn't a URLClassLoader" ! {
+      val parent = new ClassLoader(null) { }
+      val child = new URLClassLoader(Array(a.toUri.toURL), parent)
+      ClasspathIndex.indexed(child) must beTheSameAs(child)
+    }
+
+    "skips repeated URLs, but not other URLs of the same file, as URLClassLoader does" ! {
+      val other = new java.io.File(dir.toFile, "d/../d").toURI.toURL
+      val repeated = new URLClassLoader(Array(d.toUri.toURL, d.toUri.toURL, other), null)
+      urls(ClasspathIndex.indexed(repeated).getResources("index-test.conf")) shouldEqual
+        urls(repeated.getResources("index-test.conf"))
+    }
+  }
+}
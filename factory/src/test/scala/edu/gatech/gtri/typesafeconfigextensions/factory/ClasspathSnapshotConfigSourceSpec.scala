@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import com.typesafe.config.Config
+import java.nio.file.Files
+import java.nio.charset.StandardCharsets
+import scala.collection.JavaConverters._
+
+class ClasspathSnapshotConfigSourceSpec extends Specification {
+
+  "ClasspathSnapshotConfigSource" >> {
+
+    val dir = Files.createTempDirectory("classpath-snapshot")
+    val loader = new java.net.URLClassLoader(Array(dir.toUri.toURL), getClass.getClassLoader)
+
+    val basenames = Seq("config-factory-test-reference", "config-factory-test-application").asJava
+
+    val bindings = new HashMapBindings(new java.util.HashMap[Class[_], AnyRef])
+      .set(classOf[ClassLoader], loader: ClassLoader)
+
+    def writeSnapshot(name: String, checksums: java.util.List[String], config: Config) {
+      Files.write(dir.resolve(name),
+        ClasspathSnapshot.render(basenames, checksums, config).getBytes(StandardCharsets.UTF_8))
+    }
+
+    def load(name: String): Config = new ClasspathSnapshotConfigSource(name, basenames).load(bindings)
+
+    val parsed = "abc: def, ghi: xyz".toConfig
+
+    ClasspathSnapshotWriter.write(loader, basenames, dir.resolve("snapshot.conf"))
+    writeSnapshot("fake.conf", ClasspathSnapshot.checksums(loader, basenames), "abc: snapshot".toConfig)
+    writeSnapshot("stale.conf", Seq("stale").asJava, "abc: snapshot".toConfig)
+
+    "loads the same Config as parsing the resources" ! ( load("snapshot.conf") shouldEqual parsed )
+
+    "does not parse the resources if the snapshot is current" ! (
+      load("fake.conf") shouldEqual "abc: snapshot".toConfig )
+
+    "parses the resources if the snapshot is stale" ! ( load("stale.conf") shouldEqual parsed )
+
+    "parses the resources if the snapshot is missing" ! ( load("missing.conf") shouldEqual parsed )
+
+    "keeps unresolved substitutions" ! {
+      val config = "a: ${?HOME}, b: ${a}\"x\"".toConfig
+      writeSnapshot("unresolved.conf", ClasspathSnapshot.checksums(loader, basenames), config)
+      load("unresolved.conf").resolve shouldEqual config.resolve
+    }
+
+    "uses the checksums recorded in jars, which match the resources' contents" ! {
+      val jarFile = Files.createTempFile("classpath-snapshot", ".jar")
+      val content = "jarred: 1".getBytes(StandardCharsets.UTF_8)
+      val out = new java.util.jar.JarOutputStream(Files.newOutputStream(jarFile))
+      out.putNextEntry(new java.util.jar.JarEntry("jarred.conf"))
+      out.write(content)
+      out.close()
+      val jarLoader = new java.net.URLClassLoader(Array(jarFile.toUri.toURL), null)
+      val crc = new java.util.zip.CRC32
+      crc.update(content)
+      val expected = Seq("jarred.conf " + java.lang.Long.toHexString(crc.getValue)).asJava
+      (ClasspathSnapshot.checksums(jarLoader, Seq("jarred").asJava) shouldEqual expected) and
+        (ClasspathSnapshot.checksums(ClasspathIndex.indexed(jarLoader), Seq("jarred").asJava) shouldEqual expected)
+    }
+
+    "toString" ! ( new ClasspathSnapshotConfigSource("snapshot.conf", basenames).toString shouldEqual
+      "ConfigSource { classpath snapshot: snapshot.conf " +
+        "[config-factory-test-reference, config-factory-test-application] }" )
+  }
+}
@@ -172,6 +172,391 @@ class ConfigFactorySpec extends Specification {
       factory.load shouldEqual "a: 1, b: 3, c: d, d: 7, f: 7".toConfig
     }
 
+    "only evaluates a source twice if its reads of the Config changed" >> {
+
+      import java.util.concurrent.atomic.AtomicInteger
+
+      val independent = new AtomicInteger
+      val unaffected = new AtomicInteger
+      val affected = new AtomicInteger
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              independent.incrementAndGet()
+              "a: 1".toConfig
+            }
+          } named "independent",
+
+          new BaseConfigSource with ConfigKeyConsumer {
+            def consumedConfigKeys = java.util.Collections.singleton("z")
+            def load(bindings: Bindings): Config = {
+              unaffected.incrementAndGet()
+              val config: Config = bindings.get(classOf[Config]).get
+              if (config.hasPath("z")) "b: 2".toConfig else "b: 1".toConfig
+            }
+          } named "unaffected",
+
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              affected.incrementAndGet()
+              val config: Config = bindings.get(classOf[Config]).get
+              if (config.hasPath("a")) "c: 2".toConfig else "c: 1".toConfig
+            }
+          } named "affected"
+
+        ).fromHighestToLowestPrecedence
+
+      val config = factory.load
+
+      "result" ! ( config shouldEqual "a: 1, b: 1, c: 2".toConfig )
+
+      "a source that does not read the Config" ! ( independent.get shouldEqual 1 )
+
+      "a source whose reads did not change" ! ( unaffected.get shouldEqual 1 )
+
+      "a source whose reads changed" ! ( affected.get shouldEqual 2 )
+    }
+
+    "hands sources the bound Config itself, which the library's own methods accept" ! {
+
+      val reference = "a: 0, b: 0".toConfig
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              val config: Config = bindings.get(classOf[Config]).get
+              config.checkValid(emptyConfig)
+              reference.checkValid(config)
+              "b: 2".toConfig.withFallback(config).withOnlyPath("b")
+            }
+          } named "fallback",
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = "a: 1, b: 1".toConfig
+          } named "base"
+        ).fromHighestToLowestPrecedence
+
+      factory.load shouldEqual "a: 1, b: 2".toConfig
+    }
+
+    "evaluates a source that declares no keys again whenever the Config changes" ! {
+
+      import java.util.concurrent.atomic.AtomicInteger
+
+      val undeclared = new AtomicInteger
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              undeclared.incrementAndGet()
+              bindings.get(classOf[Config]).get
+              "b: 1".toConfig
+            }
+          } named "undeclared",
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = "a: 1".toConfig
+          } named "changes the Config"
+        ).fromHighestToLowestPrecedence
+
+      (factory.load shouldEqual "a: 1, b: 1".toConfig) and (undeclared.get shouldEqual 2)
+    }
+
+    "load passes" >> {
+
+      def ifPresent(key: String, value: String): ConfigSource = new BaseConfigSource {
+        def load(bindings: Bindings): Config =
+          if (bindings.get(classOf[Config]).get.hasPath(key)) value.toConfig
+          else Nil.toConfig
+      }
+
+      // x is always present, and each of y and z depends on the previous one.
+      val chain: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          ifPresent("y", "z: 1") named "z",
+          ifPresent("x", "y: 1") named "y",
+          configString("x: 1")   named "x"
+        ).fromHighestToLowestPrecedence
+
+      val flipFlop: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              val config: Config = bindings.get(classOf[Config]).get
+              ("flip" -> !(config.hasPath("flip") && config.getBoolean("flip"))).toConfig
+            }
+          } named "flip",
+          configString("x: 1") named "x"
+        ).fromHighestToLowestPrecedence
+
+      "two passes by default" ! ( chain.load shouldEqual "x: 1, y: 1".toConfig )
+
+      "until fixed point" ! (
+        chain.withLoadPasses(LoadPasses untilFixedPoint 10).load
+          shouldEqual "x: 1, y: 1, z: 1".toConfig )
+
+      "until fixed point, exceeding the maximum" ! (
+        chain.withLoadPasses(LoadPasses untilFixedPoint 2).load
+          should throwAn[IllegalStateException] )
+
+      "until fixed point, with a cycle" ! (
+        flipFlop.withLoadPasses(LoadPasses untilFixedPoint 10).load
+          should throwAn[IllegalStateException] )
+
+      "maximum must be positive" ! (
+        LoadPasses.untilFixedPoint(0) should throwAn[IllegalArgumentException] )
+    }
+
+    "bootstrap pass" >> {
+
+      import java.util.concurrent.atomic.AtomicInteger
+
+      val file = java.io.File.createTempFile("config-factory-spec", ".conf")
+      file.deleteOnExit()
+      java.nio.file.Files.write(file.toPath, "fromFile: ${base}\"-file\"".getBytes("UTF-8"))
+
+      val evaluations = new AtomicInteger
+
+      // Declares "other.file", which nothing ever sets.
+      val neverPresent = new BaseConfigSource with ConfigKeyConsumer {
+        def consumedConfigKeys = java.util.Collections.singleton("other.file")
+        def load(bindings: Bindings): Config = {
+          evaluations.incrementAndGet()
+          val config: Config = bindings.get(classOf[Config]).get
+          if (config.hasPath("other.file")) "other: 1".toConfig else Nil.toConfig
+        }
+      }
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          neverPresent named "never present",
+          configFile byKey "the.file",
+          configString("base: b, the.file: \"%s\", c: ${base}".format(file)) named "string"
+        ).fromHighestToLowestPrecedence
+
+      val withBootstrap = factory.withLoadPasses(LoadPasses.twoPasses.withBootstrapPass)
+
+      "loads the same Config" ! (
+        withBootstrap.load shouldEqual factory.load )
+
+      "resolves the result" ! (
+        withBootstrap.load.getString("fromFile") shouldEqual "b-file" )
+
+      "skips sources whose keys are absent" ! {
+        evaluations.set(0)
+        withBootstrap.load
+        evaluations.get shouldEqual 0
+      }
+
+      "falls back for sources that don't declare their keys" ! (
+        emptyConfigFactory.bindDefaults
+          .withSources(
+            new BaseConfigSource {
+              def load(bindings: Bindings): Config = {
+                val config: Config = bindings.get(classOf[Config]).get
+                if (config.hasPath("a")) ("b" -> config.getInt("a")).toConfig
+                else Nil.toConfig
+              }
+            } named "undeclared",
+            configString("a: 1") named "a"
+          ).fromHighestToLowestPrecedence
+          .withLoadPasses(LoadPasses.twoPasses.withBootstrapPass)
+          .load shouldEqual "a: 1, b: 1".toConfig )
+    }
+
+    "with an Executor bound" >> {
+
+      import java.util.concurrent.Executors
+
+      val executor = Executors.newFixedThreadPool(4)
+
+      val threadNames = new java.util.concurrent.ConcurrentLinkedQueue[String]
+
+      def source(s: String): ConfigSource = new BaseConfigSource {
+        def load(bindings: Bindings): Config = {
+          threadNames.add(Thread.currentThread.getName)
+          s.toConfig
+        }
+      }
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          source("a: 1, b: 1")             named "one",
+          source("      b: 2, c: 2")       named "two",
+          source("            c: 3, d: 3") named "three"
+        ).fromHighestToLowestPrecedence
+
+      val parallelConfig = factory.withExecutor(executor).load
+
+      executor.shutdown()
+
+      "loads the same Config as without an Executor" ! (
+        parallelConfig shouldEqual factory.load )
+
+      "loads sources on the Executor" ! (
+        threadNames.toArray.exists(_.toString startsWith "pool-") must beTrue )
+    }
+
+    "loadAsync" >> {
+
+      import java.util.concurrent.{Executors, TimeUnit}
+
+      val executor = Executors.newFixedThreadPool(4)
+
+      val threadName = new java.util.concurrent.atomic.AtomicReference[String]
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          new BaseConfigSource {
+            def load(bindings: Bindings): Config = {
+              threadName.set(Thread.currentThread.getName)
+              "a: 1".toConfig
+            }
+          } named "a",
+          configString("b: 2") named "b"
+        ).fromHighestToLowestPrecedence
+
+      val config = factory.loadAsync(executor).get(10, TimeUnit.SECONDS)
+      val loadThread = threadName.get
+      val configWithExecutor = factory.withExecutor(executor).loadAsync(executor).get(10, TimeUnit.SECONDS)
+
+      executor.shutdown()
+
+      "loads the same Config as load" ! ( config shouldEqual factory.load )
+
+      "loads on the Executor" ! ( loadThread must startWith("pool-") )
+
+      "loads the same Config with an Executor bound as well" ! (
+        configWithExecutor shouldEqual factory.load )
+    }
+
+    "loadWithReport" >> {
+
+      import scala.collection.JavaConverters._
+      import java.util.concurrent.TimeUnit
+
+      val slow = new BaseConfigSource {
+        def load(bindings: Bindings): Config = {
+          Thread.sleep(50)
+          val config: Config = bindings.get(classOf[Config]).get
+          if (config.hasPath("a")) "c: 3".toConfig else Nil.toConfig
+        }
+      }
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          slow named "slow",
+          configString("a: 1, b { x: 2, y: 3 }") named "string"
+        ).fromHighestToLowestPrecedence
+
+      val report = factory.loadWithReport
+
+      val warnings = new java.util.concurrent.ConcurrentLinkedQueue[String]
+      val logger = java.util.logging.Logger.getAnonymousLogger
+      logger.setUseParentHandlers(false)
+      logger.addHandler(new java.util.logging.Handler {
+        def publish(record: java.util.logging.LogRecord) { warnings.add(record.getMessage) }
+        def flush() { }
+        def close() { }
+      })
+
+      factory.withLoadListener(LoadListeners.logSlowSources(40, TimeUnit.MILLISECONDS, logger)).load
+
+      "config" ! ( report.config shouldEqual factory.load )
+
+      "passes" ! ( report.passes.asScala.map(_.pass) shouldEqual Seq(1, 2) )
+
+      "only sources that were evaluated are reported" ! (
+        report.sources.asScala.map(s => (s.pass, s.sourceName))
+          shouldEqual Seq((1, "slow"), (1, "string"), (2, "slow")) )
+
+      "wall time" ! (
+        report.sources.get(0).wallTime(TimeUnit.MILLISECONDS) must be_>=(50L) )
+
+      "bytes read" ! (
+        report.sources.asScala.map(_.bytesRead) shouldEqual Seq(-1, 22, -1) )
+
+      "key count" ! (
+        (report.sources.asScala.map(_.keyCount) shouldEqual Seq(0, 3, 1))
+          and (report.passes.get(1).keyCount shouldEqual 4) )
+
+      "key count with equal sibling values" ! {
+        val equalValues = emptyConfigFactory.bindDefaults
+          .withSources(
+            configString("a: 1, b: 1, c { x: 2, y: 2 }") named "string",
+            configString("") named "empty"
+          )
+          .fromHighestToLowestPrecedence
+          .loadWithReport
+        (equalValues.sources.get(0).keyCount shouldEqual 4) and
+          (equalValues.passes.get(0).keyCount shouldEqual 4)
+      }
+
+      "slow sources are logged" ! (
+        warnings.asScala.toList.map(_ startsWith "Config source slow took ")
+          shouldEqual List(true, true) )
+    }
+
+    "loadWithReport with an Executor" >> {
+
+      import java.util.concurrent.{Executors, TimeUnit}
+
+      val slower = new BaseConfigSource {
+        def load(bindings: Bindings): Config = { Thread.sleep(300); "a: 1".toConfig }
+      }
+
+      val executor = Executors.newFixedThreadPool(2)
+
+      val report = emptyConfigFactory.bindDefaults
+        .withSources(
+          slower named "slower",
+          configString("b: 2") named "fast"
+        ).fromHighestToLowestPrecedence
+        .withExecutor(executor)
+        .loadWithReport
+
+      executor.shutdown()
+
+      "a fast source isn't charged for waiting on a slower one" ! (
+        report.sources.get(1).wallTime(TimeUnit.MILLISECONDS) must be_<(150L) )
+
+      "a slow source is still measured" ! (
+        report.sources.get(0).wallTime(TimeUnit.MILLISECONDS) must be_>=(300L) )
+    }
+
+    "compile" >> {
+
+      val evaluations = new java.util.concurrent.atomic.AtomicInteger
+
+      val counting = new BaseConfigSource {
+        def load(bindings: Bindings): Config = {
+          evaluations.incrementAndGet
+          "b: 2".toConfig
+        }
+      }
+
+      val factory: ConfigFactory = emptyConfigFactory.bindDefaults
+        .withSources(
+          counting named "counting",
+          configString("a: 1") named "string"
+        ).fromHighestToLowestPrecedence
+
+      val plan = factory.compile
+
+      "loads the same Config as load" ! ( plan.load shouldEqual factory.load )
+
+      "can be loaded repeatedly" ! {
+        evaluations.set(0)
+        (plan.load shouldEqual plan.load) and (evaluations.get shouldEqual 2)
+      }
+
+      "toString" ! ( plan.toString shouldEqual
+        "LoadPlan { sources: [counting, string], passes: LoadPasses { 2 } }" )
+    }
+
     "configFile" >> {
 
       "byKey" >> {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory._
+import com.typesafe.config.{Config, ConfigParseOptions}
+import java.nio.file.{Files, Path}
+import com.typesafe.config.ConfigFactory.parseFileAnySyntax
+import scala.collection.JavaConverters._
+
+class ConfigFileCacheSpec extends Specification {
+
+  "ConfigFileCache" >> {
+
+    val dir = Files.createTempDirectory("config-file-cache")
+    val cacheDir = dir.resolve("cache")
+    val cache = ConfigFileCache.inDirectory(cacheDir)
+
+    def write(name: String, content: String): Path =
+      Files.write(dir.resolve(name), content.getBytes("UTF-8"))
+
+    def parse(path: Path): Config = cache.parse(path, ConfigParseOptions.defaults)
+
+    def cacheFiles: Seq[String] =
+      if (Files.exists(cacheDir)) Files.newDirectoryStream(cacheDir).asScala.map(_.getFileName.toString).toSeq
+      else Nil
+
+    "parses the file the first time" ! {
+      val file = write("a.conf", "a: 1, b { c: [1, 2] }")
+      (parse(file) shouldEqual "a: 1, b { c: [1, 2] }".toConfig) and
+        (cacheFiles.filter(_.endsWith(".bconf")) must not(beEmpty))
+    }
+
+    "uses the cached result if the file is unchanged" ! {
+      val file = write("b.conf", "b: 1")
+      parse(file)
+      val cached = cacheFiles.filter(_.endsWith(".bconf")).map(cacheDir.resolve(_))
+        .filter(p => BinaryConfigFormat.read(p) == "b: 1".toConfig)
+      BinaryConfigFormat.write("b: cached".toConfig, cached.head)
+      parse(file) shouldEqual "b: cached".toConfig
+    }
+
+    "parses the file again if it changed" ! {
+      val file = write("c.conf", "a: 1")
+      parse(file)
+      write("c.conf", "a: 22")
+      parse(file) shouldEqual "a: 22".toConfig
+    }
+
+    "does not cache files with substitutions or includes" ! {
+      val otherCacheDir = dir.resolve("other-cache")
+      val otherCache = ConfigFileCache.inDirectory(otherCacheDir)
+      val substitutions = write("d.conf", "a: 1, b: ${a}")
+      write("e-included.conf", "e: 1")
+      val includes = write("e.conf", "include \"e-included.conf\"")
+      (otherCache.parse(substitutions, ConfigParseOptions.defaults) shouldEqual "a: 1, b: ${a}".toConfig) and
+        (otherCache.parse(includes, ConfigParseOptions.defaults) shouldEqual "e: 1".toConfig) and
+        (Files.newDirectoryStream(otherCacheDir).asScala.filter(_.toString.endsWith(".bconf")) must beEmpty)
+    }
+
+    "caches a file named without its extension" ! {
+      val otherCacheDir = dir.resolve("extensionless-cache")
+      val otherCache = ConfigFileCache.inDirectory(otherCacheDir)
+      write("h.conf", "h: 1")
+      val parsed = otherCache.parse(dir.resolve("h"), ConfigParseOptions.defaults)
+      (parsed shouldEqual "h: 1".toConfig) and
+        (parsed.origin.filename shouldEqual dir.resolve("h.conf").toString) and
+        (Files.newDirectoryStream(otherCacheDir).asScala.filter(_.toString.endsWith(".bconf")) must not(beEmpty))
+    }
+
+    "does not cache files whose numbers would lose their text" ! {
+      val otherCacheDir = dir.resolve("number-cache")
+      val otherCache = ConfigFileCache.inDirectory(otherCacheDir)
+      val file = write("i.conf", "i: 1.50")
+      (otherCache.parse(file, ConfigParseOptions.defaults).getString("i") shouldEqual "1.50") and
+        (otherCache.parse(file, ConfigParseOptions.defaults).getString("i") shouldEqual "1.50") and
+        (Files.newDirectoryStream(otherCacheDir).asScala.filter(_.toString.endsWith(".bconf")) must beEmpty)
+    }
+
+    "a hit is faster than parsing" ! {
+      val file = write("j.conf", (1 to 20000).map(i => "k" + i + ": " + i).mkString("\n"))
+      def fastest(f: => Config): Long = (1 to 5).map { _ => val t = System.nanoTime; f; System.nanoTime - t }.min
+      parse(file)
+      fastest(parse(file)) must beLessThan(fastest(parseFileAnySyntax(file.toFile)))
+    }
+
+    "used by configFile" ! {
+      val file = write("f.conf", "f: 1")
+      emptyConfigFactory.bindDefaults.withConfigFileCache(cache)
+        .withSources(configFile byPath file, configString("g: 2") named "g")
+        .fromHighestToLowestPrecedence.load shouldEqual "f: 1, g: 2".toConfig
+    }
+  }
+}
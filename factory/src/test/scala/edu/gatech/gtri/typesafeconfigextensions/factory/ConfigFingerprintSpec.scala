@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+
+class ConfigFingerprintSpec extends Specification {
+
+  "ConfigFingerprint" >> {
+
+    import ConfigFingerprint.fingerprint
+
+    "equal Configs have equal fingerprints" ! (
+      fingerprint("a: 1, b { c: [1, 2.5, x], d: null }".toConfig)
+        shouldEqual fingerprint("b { d: null, c: [1, 2.5, x] }, a: 1".toConfig) )
+
+    "whole numbers of different types" ! (
+      fingerprint(("a" -> 1).toConfig)
+        shouldEqual fingerprint(("a" -> 1L).toConfig) )
+
+    "different values" ! (
+      fingerprint("a: 1".toConfig) shouldNotEqual fingerprint("a: 2".toConfig) )
+
+    "different keys" ! (
+      fingerprint("a: 1".toConfig) shouldNotEqual fingerprint("b: 1".toConfig) )
+
+    "different list order" ! (
+      fingerprint("a: [1, 2]".toConfig) shouldNotEqual fingerprint("a: [2, 1]".toConfig) )
+
+    "string vs number" ! (
+      fingerprint("a: 1".toConfig) shouldNotEqual fingerprint("a: \"1\"".toConfig) )
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import com.typesafe.config.{Config, ConfigFactory => TypesafeConfigFactory, ConfigResolveOptions}
+import scala.collection.JavaConverters._
+
+class ConfigMergeSpec extends Specification {
+
+  def chain(configs: Seq[Config]): Config =
+    configs.foldLeft(TypesafeConfigFactory.empty)(_ withFallback _)
+
+  val configs: Seq[Config] = Seq(
+    "a: 1, b { x: 1 }, c: [1, 2]",
+    "",
+    "b { y: 2, z: ${a} }, d: ${b.x}",
+    "a { nested: true }, b: 7, e: 5",
+    "b { x: 3, w: 4 }, f { g { h: 1 } }, c: [3]",
+    "f { g { i: 2 } }, \"quoted.key\": 1"
+  ).map(s => TypesafeConfigFactory.parseString(s))
+
+  def resolve(c: Config) = c.resolve(ConfigResolveOptions.defaults)
+
+  "ConfigMerge" >> {
+
+    "same as withFallback" ! (
+      resolve(ConfigMerge.merge(configs.asJava)) shouldEqual resolve(chain(configs)) )
+
+    "same as withFallback, in any order" ! (
+      resolve(ConfigMerge.merge(configs.reverse.asJava))
+        shouldEqual resolve(chain(configs.reverse)) )
+
+    "no configs" ! ( ConfigMerge.merge(Seq[Config]().asJava) shouldEqual Nil.toConfig )
+
+    "only empty configs" ! (
+      ConfigMerge.merge(Seq[Config](Nil.toConfig, Nil.toConfig).asJava) shouldEqual Nil.toConfig )
+
+    "root origin" ! (
+      ConfigMerge.merge(configs.asJava).origin.description
+        shouldEqual chain(configs).origin.description )
+
+    "on a ForkJoinPool" ! {
+
+      val many: Seq[Config] = (1 to 20).map(i =>
+        (1 to 500).filter(_ % i == 0).map(k => ("k" + k) -> i).toConfig)
+
+      val pool = new java.util.concurrent.ForkJoinPool(4)
+
+      try {
+        ConfigMerge.merge(many.asJava, pool) shouldEqual chain(many)
+      } finally {
+        pool.shutdown()
+      }
+    }
+  }
+
+}
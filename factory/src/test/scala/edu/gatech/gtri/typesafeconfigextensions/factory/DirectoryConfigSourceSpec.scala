@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory._
+import com.typesafe.config.ConfigParseOptions
+import java.nio.file.Files
+import java.util.concurrent.{Executor, ForkJoinPool}
+
+class DirectoryConfigSourceSpec extends Specification {
+
+  "DirectoryConfigSource" >> {
+
+    val dir = Files.createTempDirectory("config-directory")
+
+    def write(name: String, content: String) {
+      Files.write(dir.resolve(name), content.getBytes("UTF-8"))
+    }
+
+    write("10-base.conf", "a: base, b: base, c: base")
+    write("50-middle.json", """{ "b": "json" }""")
+    write("50-middle.conf", "b: middle, list: [1]")
+    write("90-local.conf", "c: local, d: ${a}")
+    write("README", "not a config")
+
+    val source = new DirectoryConfigSource(PathSpecifications.byPath(dir), "*.conf")
+    val expected = "a: base, b: middle, c: local, d: ${a}, list: [1]".toConfig
+
+    "merges matching files in lexical order" ! ( source.load(defaultBindings) shouldEqual expected )
+
+    "parses in parallel on a ForkJoinPool" ! {
+      val pool = new ForkJoinPool(4)
+      try {
+        source.load(defaultBindings.asInstanceOf[HashMapBindings]
+          .set(classOf[Executor], pool)) shouldEqual expected
+      } finally {
+        pool.shutdown()
+      }
+    }
+
+    "matches other globs" ! (
+      new DirectoryConfigSource(PathSpecifications.byPath(dir), "*.{conf,json}").load(defaultBindings)
+        .getString("b") shouldEqual "json" )
+
+    "parses matching files without a config extension as HOCON" ! {
+      val other = Files.createTempDirectory("config-directory")
+      Files.write(other.resolve("10-base.conf"), "a: base, b: base".getBytes("UTF-8"))
+      Files.write(other.resolve("50-local"), "a: local".getBytes("UTF-8"))
+      Files.write(other.resolve("60-app.conf.bak"), "b: backup".getBytes("UTF-8"))
+      new DirectoryConfigSource(PathSpecifications.byPath(other), "*").load(defaultBindings) shouldEqual
+        "a: local, b: backup".toConfig
+    }
+
+    "skips subdirectories, but follows links to files" ! {
+      val other = Files.createTempDirectory("config-directory")
+      Files.write(other.resolve("10-base.conf"), "a: base, b: base".getBytes("UTF-8"))
+      Files.createDirectory(other.resolve("20-nested.conf"))
+      Files.createDirectory(other.resolve("..data"))
+      Files.write(other.resolve("..data").resolve("target"), "b: linked".getBytes("UTF-8"))
+      Files.createSymbolicLink(other.resolve("30-linked.conf"), other.resolve("..data").resolve("target"))
+      val strict = defaultBindings.asInstanceOf[HashMapBindings].set(classOf[ConfigParseOptions],
+        ConfigParseOptions.defaults.setAllowMissing(false))
+      (new DirectoryConfigSource(PathSpecifications.byPath(other), "*.conf").load(strict) shouldEqual
+        "a: base, b: linked".toConfig) and
+        (new DirectoryConfigSource(PathSpecifications.byPath(other), "*").load(strict) shouldEqual
+          "a: base, b: linked".toConfig)
+    }
+
+    "rejects an invalid glob when the source is defined" ! (
+      configDirectory("[conf") must throwA[java.util.regex.PatternSyntaxException] )
+
+    "treats a missing directory as empty" ! (
+      new DirectoryConfigSource(PathSpecifications.byPath(dir.resolve("missing")), "*.conf")
+        .load(defaultBindings) shouldEqual Nil.toConfig )
+
+    "fails on a missing directory if missing files aren't allowed" ! (
+      new DirectoryConfigSource(PathSpecifications.byPath(dir.resolve("missing")), "*.conf")
+        .load(defaultBindings.asInstanceOf[HashMapBindings].set(classOf[ConfigParseOptions],
+          ConfigParseOptions.defaults.setAllowMissing(false))) must throwA[IllegalStateException] )
+
+    "byKey" >> {
+
+      val byKey = configDirectory("*.conf") byKey "conf.d"
+
+      "name" ! ( byKey.name shouldEqual "directory by key: conf.d, glob *.conf" )
+
+      "toString" ! ( byKey.toString shouldEqual "ConfigSource { directory by key: conf.d, glob *.conf }" )
+
+      "consumes its key" ! (
+        ConfigKeyConsumers.consumedConfigKeys(new DirectoryConfigSource(PathSpecifications.byKey("conf.d"), "*"))
+          shouldEqual java.util.Collections.singleton("conf.d") )
+
+      "loads from the directory at the key" ! (
+        emptyConfigFactory.bindDefaults
+          .withSources(configString("conf.d: \"" + dir.toString + "\"") named "key", byKey)
+          .fromLowestToHighestPrecedence.load.getString("c") shouldEqual "local" )
+    }
+  }
+}
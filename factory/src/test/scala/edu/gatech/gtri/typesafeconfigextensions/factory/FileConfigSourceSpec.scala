@@ -32,5 +32,30 @@ class FileConfigSourceSpec extends Specification {
 
       "with nothing bound" ! ( source.load(noBindings) shouldEqual Nil.toConfig )
     }
+
+    "byPath" >> {
+
+      import com.typesafe.config.ConfigFactory.parseFileAnySyntax
+      import java.nio.file.Files
+
+      val dir = Files.createTempDirectory("file-config-source")
+      Files.write(dir.resolve("o.conf"), "a: 1\nb { c: 2 }".getBytes("UTF-8"))
+
+      val expected = parseFileAnySyntax(dir.resolve("o").toFile)
+      val actual = new FileConfigSource(PathSpecifications.byPath(dir.resolve("o"))).load(noBindings)
+
+      "config" ! ( actual shouldEqual expected )
+
+      def origins(config: com.typesafe.config.Config) = Seq("a", "b.c") map { path =>
+        val origin = config.getValue(path).origin
+        (origin.description, origin.filename, origin.url, origin.lineNumber)
+      }
+
+      "origins are the same as the library's" ! ( origins(actual) shouldEqual origins(expected) )
+
+      "origins have a filename and a URL" ! (
+        (actual.getValue("a").origin.filename shouldEqual dir.resolve("o.conf").toString) and
+          (actual.getValue("a").origin.url shouldEqual dir.resolve("o.conf").toUri.toURL) )
+    }
   }
 }
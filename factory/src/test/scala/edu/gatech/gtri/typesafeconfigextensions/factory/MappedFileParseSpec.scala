@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory._
+import com.typesafe.config.{Config, ConfigParseOptions}
+import com.typesafe.config.ConfigFactory.parseFileAnySyntax
+import java.nio.file.{Files, Path}
+import scala.collection.JavaConverters._
+
+class MappedFileParseSpec extends Specification {
+
+  "MappedFileParse" >> {
+
+    val dir = Files.createTempDirectory("mapped-file-parse")
+    val options = ConfigParseOptions.defaults
+    val mapped = MappedFileParse.defaults
+
+    def write(name: String, content: String): Path =
+      Files.write(dir.resolve(name), content.getBytes("UTF-8"))
+
+    def origins(config: Config): Map[String, String] =
+      config.entrySet.asScala.map(e => e.getKey -> e.getValue.origin.description).toMap
+
+    def sameAsLibrary(path: Path, parse: MappedFileParse = mapped) = {
+      val expected = parseFileAnySyntax(path.toFile, options)
+      val actual = parse.parse(path, options)
+      (actual shouldEqual expected) and (origins(actual) shouldEqual origins(expected))
+    }
+
+    "parses HOCON" ! sameAsLibrary(
+      write("a.conf", "a: 1\nb { c: \"dé中😀\" }\nlist: [1, 2, ${a}]"))
+
+    "parses JSON" ! sameAsLibrary(write("b.json", """{ "a": { "b": [true, null, 1.5] } }"""))
+
+    "parses properties" ! sameAsLibrary(write("c.properties", "a.b=1\nc=é"))
+
+    "finds the file by basename" ! {
+      write("d.conf", "d: 1")
+      sameAsLibrary(dir.resolve("d"))
+    }
+
+    "leaves includes to the library" ! {
+      write("e-included.conf", "f: 2")
+      sameAsLibrary(write("e.conf", "e: 1\ninclude \"e-included.conf\""))
+    }
+
+    "leaves missing files to the library" ! (
+      mapped.parse(dir.resolve("missing.conf"), options.setAllowMissing(false)) must
+        throwA[com.typesafe.config.ConfigException] )
+
+    "decodes large files in chunks" ! {
+      val line = "k%d: \"é中😀 value\"\n"
+      val lines = (1 to (MappedFileParse.CHUNK_CHARS / line.length * 3)).map(line.format(_))
+      sameAsLibrary(write("large.conf", lines.mkString), MappedFileParse.withBulkDecodeLimit(1024))
+    }
+
+    "rejects a negative bulk decode limit" ! (
+      MappedFileParse.withBulkDecodeLimit(-1) must throwA[IllegalArgumentException] )
+
+    "used by configFile only when bound" ! {
+      val file = write("g.conf", "g: 1")
+      def load(factory: ConfigFactory) = factory
+        .withSources(configFile byPath file, configString("h: 2") named "h")
+        .fromHighestToLowestPrecedence.load
+      val bound = load(emptyConfigFactory.bindDefaults.withMappedFileParse(mapped))
+      val unbound = load(emptyConfigFactory.bindDefaults)
+      (bound shouldEqual "g: 1, h: 2".toConfig) and
+        (bound.getValue("g").origin.filename must beNull) and
+        (unbound.getValue("g").origin.filename shouldEqual file.toString)
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import com.typesafe.config.{Config, ConfigParseOptions}
+import com.typesafe.config.ConfigFactory.parseResourcesAnySyntax
+import java.io.FileOutputStream
+import java.net.URLClassLoader
+import java.nio.file.{Files, Path}
+import java.util.concurrent.ForkJoinPool
+import java.util.jar.{JarEntry, JarOutputStream}
+import scala.collection.JavaConverters._
+
+class ParallelResourceParseSpec extends Specification {
+
+  "ParallelResourceParse" >> {
+
+    val dir = Files.createTempDirectory("parallel-resource-parse")
+
+    def jar(name: String, entries: (String, String)*): Path = {
+      val path = dir.resolve(name)
+      val out = new JarOutputStream(new FileOutputStream(path.toFile))
+      for ((entryName, content) <- entries) {
+        out.putNextEntry(new JarEntry(entryName))
+        out.write(content.getBytes("UTF-8"))
+      }
+      out.close()
+      path
+    }
+
+    val jars = Seq(
+      jar("a.jar", "parallel.conf" -> "a: 1, shared { x: a }, list: [a]"),
+      jar("b.jar", "parallel.conf" -> "b: 2, shared { x: b, y: b }, list: [b], sum: ${a}"),
+      jar("c.jar", "parallel.conf" -> "include \"parallel-included\"", "parallel-included.conf" -> "c: 3"),
+      jar("d.jar", "parallel.json" -> """{ "shared": { "z": "d" }, "a": 4 }"""),
+      jar("e.jar", "parallel.properties" -> "shared.y=e\nf=6")
+    )
+
+    val loader = new URLClassLoader(jars.map(_.toUri.toURL).toArray, null)
+    val options = ConfigParseOptions.defaults
+
+    def origins(config: Config): Map[String, String] =
+      config.entrySet.asScala.map(e => e.getKey -> e.getValue.origin.description).toMap
+
+    def parallel(f: ForkJoinPool => Config): Config = {
+      val pool = new ForkJoinPool(4)
+      try f(pool) finally pool.shutdown()
+    }
+
+    "parses the same Config as parseResourcesAnySyntax" ! {
+      val expected = parseResourcesAnySyntax(loader, "parallel", options)
+      val actual = parallel(ParallelResourceParse.parse(loader, "parallel", options, _))
+      (actual shouldEqual expected) and
+        (actual.resolve shouldEqual expected.resolve) and
+        (origins(actual) shouldEqual origins(expected))
+    }
+
+    "leaves missing resources to the library" ! {
+      val strict = options.setAllowMissing(false)
+      parallel(ParallelResourceParse.parse(loader, "missing", strict, _)) must
+        throwA[com.typesafe.config.ConfigException]
+    }
+
+    "is used by ClasspathResourceConfigSource on a ForkJoinPool" ! {
+      parallel { pool =>
+        val bindings = ConfigFactory.defaultBindings.asInstanceOf[HashMapBindings]
+          .set(classOf[ClassLoader], loader)
+          .set(classOf[java.util.concurrent.Executor], pool)
+        new ClasspathResourceConfigSource("parallel").load(bindings)
+      } shouldEqual parseResourcesAnySyntax(loader, "parallel", options)
+    }
+  }
+}
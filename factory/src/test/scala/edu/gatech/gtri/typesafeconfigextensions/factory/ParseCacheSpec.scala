@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.factory
+
+import org.specs2.mutable._
+import edu.gatech.gtri.typesafeconfigextensions.forscala._
+import com.typesafe.config.{ConfigParseOptions, ConfigSyntax}
+import java.nio.file.Files
+
+class ParseCacheSpec extends Specification {
+
+  "ParseCache" >> {
+
+    def bindingsWith(cache: ParseCache) =
+      new HashMapBindings(new java.util.HashMap[Class[_], AnyRef]).set(classOf[ParseCache], cache)
+
+    "strings" ! {
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+      val first = new StringConfigSource("a: 1").load(bindings)
+      (first shouldEqual "a: 1".toConfig) and
+        (new StringConfigSource("a: 1").load(bindings) must beTheSameAs(first))
+    }
+
+    "parse options are part of the key" ! {
+      val cache = ParseCache.withMaximumEntries(10)
+      val bindings = bindingsWith(cache)
+      new StringConfigSource("a: 1").load(bindings)
+      new StringConfigSource("a: 1").load(
+        bindings.set(classOf[ConfigParseOptions], ConfigParseOptions.defaults.setSyntax(ConfigSyntax.CONF)))
+      cache.size shouldEqual 2
+    }
+
+    "files" ! {
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+      val file = Files.createTempFile("parse-cache", ".conf")
+      Files.write(file, "a: 1".getBytes("UTF-8"))
+      val source = new FileConfigSource(PathSpecifications.byPath(file))
+      val first = source.load(bindings)
+      val second = source.load(bindings)
+      Files.write(file, "a: 2".getBytes("UTF-8"))
+      (second must beTheSameAs(first)) and (source.load(bindings) shouldEqual "a: 2".toConfig)
+    }
+
+    "classpath resources" ! {
+      val dir = Files.createTempDirectory("parse-cache")
+      Files.write(dir.resolve("parse-cache-test.conf"), "a: 1".getBytes("UTF-8"))
+      val loader = new java.net.URLClassLoader(Array(dir.toUri.toURL), null)
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+        .set(classOf[ClassLoader], loader: ClassLoader)
+      val source = new ClasspathResourceConfigSource("parse-cache-test")
+      val first = source.load(bindings)
+      (first shouldEqual "a: 1".toConfig) and (source.load(bindings) must beTheSameAs(first))
+    }
+
+    "files named without their extension" ! {
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+      val dir = Files.createTempDirectory("parse-cache")
+      Files.write(dir.resolve("named.conf"), "a: 1".getBytes("UTF-8"))
+      val source = new FileConfigSource(PathSpecifications.byPath(dir.resolve("named")))
+      val first = source.load(bindings)
+      (first shouldEqual "a: 1".toConfig) and (source.load(bindings) must beTheSameAs(first))
+    }
+
+    "classpath resources are not read again on a hit" ! {
+      import scala.collection.JavaConverters._
+      import java.net.{URL, URLConnection, URLStreamHandler}
+      val dir = Files.createTempDirectory("parse-cache")
+      Files.write(dir.resolve("parse-cache-reads.conf"), "a: 1".getBytes("UTF-8"))
+      val reads = new java.util.concurrent.atomic.AtomicInteger
+      val counting = new URLStreamHandler {
+        def openConnection(url: URL): URLConnection = {
+          reads.incrementAndGet()
+          new URL(url.toExternalForm).openConnection()
+        }
+      }
+      val loader = new java.net.URLClassLoader(Array(dir.toUri.toURL), null) {
+        override def getResources(name: String) = java.util.Collections.enumeration(
+          super.getResources(name).asScala.toList.map(url => new URL(null, url.toExternalForm, counting)).asJava)
+      }
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+        .set(classOf[ClassLoader], loader: ClassLoader)
+      val source = new ClasspathResourceConfigSource("parse-cache-reads")
+      val first = source.load(bindings)
+      val readsToParse = reads.get
+      val second = source.load(bindings)
+      val readsOnHit = reads.get - readsToParse
+      Files.write(dir.resolve("parse-cache-reads.conf"), "a: 22".getBytes("UTF-8"))
+      (second must beTheSameAs(first)) and (readsToParse must beGreaterThan(0)) and
+        (readsOnHit shouldEqual 0) and (source.load(bindings) shouldEqual "a: 22".toConfig)
+    }
+
+    "classpath resources in jars" ! {
+      val jar = Files.createTempFile("parse-cache", ".jar")
+      def writeJar(content: String) {
+        val out = new java.util.jar.JarOutputStream(Files.newOutputStream(jar))
+        out.putNextEntry(new java.util.jar.JarEntry("parse-cache-jar.conf"))
+        out.write(content.getBytes("UTF-8"))
+        out.close()
+      }
+      writeJar("a: 1")
+      val bindings = bindingsWith(ParseCache.withMaximumEntries(10))
+        .set(classOf[ClassLoader], new java.net.URLClassLoader(Array(jar.toUri.toURL), null): ClassLoader)
+      val source = new ClasspathResourceConfigSource("parse-cache-jar")
+      val first = source.load(bindings)
+      val second = source.load(bindings)
+      writeJar("a: 2")
+      // A new loader, as the JDK's caches of the old one's jar are stale.
+      val reloaded = bindings.set(classOf[ClassLoader],
+        new java.net.URLClassLoader(Array(jar.toUri.toURL), null): ClassLoader)
+      (second must beTheSameAs(first)) and (source.load(reloaded) shouldEqual "a: 2".toConfig)
+    }
+
+    "holds at most the maximum number of entries" ! {
+      val cache = ParseCache.withMaximumEntries(2)
+      Seq("a: 1", "a: 2", "a: 3") foreach { s => new StringConfigSource(s).load(bindingsWith(cache)) }
+      cache.size shouldEqual 2
+    }
+
+    "maximum must be positive" ! (
+      ParseCache.withMaximumEntries(0) must throwAn[IllegalArgumentException] )
+  }
+}
@@ -34,6 +34,10 @@ class PathSpecificationsSpec extends Specification {
       val pathSpecification: PathSpecification = byKey("config.key")
 
       """name is "by key: _"""" ! ( pathSpecification.name shouldEqual "by key: config.key" )
+
+      "consumes its key" ! (
+        pathSpecification.asInstanceOf[ConfigKeyConsumer].consumedConfigKeys
+          shouldEqual java.util.Collections.singleton("config.key") )
     }
 
     "byPath" >> {
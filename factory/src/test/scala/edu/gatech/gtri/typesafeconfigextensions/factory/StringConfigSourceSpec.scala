@@ -29,5 +29,16 @@ class StringConfigSourceSpec extends Specification {
     "toString" ! ( source.toString shouldEqual "ConfigSource { string: a: b }" )
 
     "with nothing bound" ! ( source.load(noBindings) shouldEqual ("a" -> "b").toConfig )
+
+    "is parsed once per ConfigParseOptions" ! {
+      val defaults = defaultBindings
+      val json = defaultBindings.asInstanceOf[HashMapBindings].set(classOf[com.typesafe.config.ConfigParseOptions],
+        com.typesafe.config.ConfigParseOptions.defaults.setSyntax(com.typesafe.config.ConfigSyntax.JSON))
+      val jsonSource = new StringConfigSource("""{ "a": "b" }""")
+      (source.load(defaults) must beTheSameAs(source.load(defaults))) and
+        (source.load(noBindings) must beTheSameAs(source.load(noBindings))) and
+        (jsonSource.load(json) must beTheSameAs(jsonSource.load(json))) and
+        (jsonSource.load(json) shouldEqual ("a" -> "b").toConfig)
+    }
   }
 }
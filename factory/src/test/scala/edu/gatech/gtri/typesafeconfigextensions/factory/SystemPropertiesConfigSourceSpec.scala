@@ -26,4 +26,38 @@ class SystemPropertiesConfigSourceSpec extends Specification {
 
     "toString" ! ( source.toString shouldEqual "ConfigSource { system properties }" )
   }
+
+  "FilteredSystemPropertiesConfigSource" >> {
+
+    System.setProperty("filtered-spec.a", "1")
+    System.setProperty("filtered-spec.b.c", "2")
+    System.setProperty("filtered-spec-other", "3")
+
+    val filter = SystemPropertyFilter.including("filtered-spec").excluding("filtered-spec.b")
+
+    "loads the accepted keys" ! (
+      new FilteredSystemPropertiesConfigSource(filter).load(ConfigFactory.noBindings)
+        shouldEqual com.typesafe.config.ConfigFactory.parseString("filtered-spec.a: \"1\"") )
+
+    "loads everything like systemProperties" ! {
+      com.typesafe.config.ConfigFactory.invalidateCaches()
+      new FilteredSystemPropertiesConfigSource(SystemPropertyFilter.all).load(ConfigFactory.noBindings) shouldEqual
+        com.typesafe.config.ConfigFactory.systemProperties
+    }
+
+    "is converted again only when the properties change" ! {
+      val source = new FilteredSystemPropertiesConfigSource(SystemPropertyFilter.including("filtered-spec-changes"))
+      val before = source.load(ConfigFactory.noBindings)
+      val unchanged = source.load(ConfigFactory.noBindings)
+      System.setProperty("filtered-spec-changes.x", "4")
+      val changed = source.load(ConfigFactory.noBindings)
+      (unchanged must beTheSameAs(before)) and (changed.getString("filtered-spec-changes.x") shouldEqual "4")
+    }
+
+    "toString" ! ( new FilteredSystemPropertiesConfigSource(filter).toString shouldEqual
+      "ConfigSource { system properties: SystemPropertyFilter { including [filtered-spec] excluding [filtered-spec.b] } }" )
+
+    "is named like systemProperties" ! (
+      ConfigFactory.systemProperties(filter).name shouldEqual ConfigFactory.systemProperties.name )
+  }
 }
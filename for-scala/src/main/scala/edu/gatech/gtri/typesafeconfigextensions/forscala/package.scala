@@ -17,6 +17,7 @@
 package edu.gatech.gtri.typesafeconfigextensions
 
 import com.typesafe.config.{ConfigException, ConfigFactory, ConfigValue, ConfigValueFactory}
+import edu.gatech.gtri.typesafeconfigextensions.internal.ConfigTreeBuilder
 import scala.math.ScalaNumber
 
 /**
@@ -109,7 +110,11 @@ package object forscala {
 
   implicit class SeqOfStringAndAnyEnrichedForScalaConfig(seq: Seq[(String, Any)]) {
 
-    def toConfig: Config = seq.foldLeft(ConfigFactory.empty)(_+_)
+    def toConfig: Config = {
+      val builder = new ConfigTreeBuilder(ConfigFactory.empty.root)
+      for ((path, value) <- seq) builder.put(path, value.toConfigValue)
+      builder.build.toConfig
+    }
   }
 
   implicit class StringEnrichedForScalaConfig(s: String) {
@@ -21,6 +21,7 @@ import com.typesafe.config.ConfigParseOptions;
 import com.typesafe.config.ConfigValue;
 import edu.gatech.gtri.typesafeconfigextensions.factory.Binding;
 import edu.gatech.gtri.typesafeconfigextensions.factory.Bindings;
+import edu.gatech.gtri.typesafeconfigextensions.internal.ConfigTreeBuilder;
 import edu.gatech.gtri.typesafeconfigextensions.internal.Function;
 import edu.gatech.gtri.typesafeconfigextensions.jndi.JndiContext;
 
@@ -110,18 +111,20 @@ implements JndiConfigSource {
         checkNotNull(bindings);
 
         Config jndiConfig = jndiConfigSupplier.apply(bindings);
-        Config config = com.typesafe.config.ConfigFactory.empty();
+        ConfigTreeBuilder config = new ConfigTreeBuilder(
+            com.typesafe.config.ConfigFactory.empty().root());
 
         for (PathMapping mapping : mappings) {
 
             ConfigValue value = jndiConfig.root().get(mapping.fromJndiPath());
 
             if (value != null) {
-                config = config.withValue(mapping.toRootPath(), value);
+                config.put(mapping.toRootPath(), value);
             }
         }
 
-        return config.withFallback(jndiConfig.atPath("jndi"));
+        return config.build().toConfig()
+            .withFallback(jndiConfig.atPath("jndi"));
     }
 
     @Override
@@ -21,15 +21,19 @@ import edu.gatech.gtri.typesafeconfigextensions.factory.BaseConfigSource;
 import edu.gatech.gtri.typesafeconfigextensions.factory.Binding;
 import edu.gatech.gtri.typesafeconfigextensions.factory.Bindings;
 import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigFactory;
+import edu.gatech.gtri.typesafeconfigextensions.factory.ConfigKeyConsumer;
 import edu.gatech.gtri.typesafeconfigextensions.factory.OptionalPath;
 import edu.gatech.gtri.typesafeconfigextensions.factory.PathSpecification;
 
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
 
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 
 final class ServletContextDirectoryConfigSource
-extends BaseConfigSource {
+extends BaseConfigSource
+implements ConfigKeyConsumer {
 
     private final PathSpecification pathSpecification;
 
@@ -83,6 +87,17 @@ extends BaseConfigSource {
         return ConfigFactory.configFile().byPath(path).load(bindings);
     }
 
+    @Override
+    public Set<String> consumedConfigKeys() {
+
+        if (pathSpecification instanceof ConfigKeyConsumer) {
+            return ((ConfigKeyConsumer) pathSpecification)
+                .consumedConfigKeys();
+        } else {
+            return Collections.emptySet();
+        }
+    }
+
     @Override
     public String toString() {
 
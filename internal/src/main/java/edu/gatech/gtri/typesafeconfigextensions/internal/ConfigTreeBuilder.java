@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.internal;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Builds a {@link ConfigObject} from any number of path &rarr; value
+ * entries, with the same result as making the same sequence of
+ * {@link com.typesafe.config.Config#withValue(String, ConfigValue)
+ * withValue} calls.
+ *
+ * <p>Each {@code withValue} call copies every object on the path from the
+ * root down to the new value, so building a tree of {@code n} entries one
+ * call at a time takes time quadratic in {@code n}. This builder collects
+ * the entries in mutable maps, and assembles each object once, at the
+ * end, from a balanced series of merges of single-key objects.</p>
+ *
+ * <p>A builder can only be {@link #build() built} once.</p>
+ */
+public final class ConfigTreeBuilder {
+
+    private final Branch root;
+
+    private boolean built;
+
+    /**
+     * A builder whose entries are added to {@code root}; the built object
+     * has {@code root}'s origin.
+     */
+    public ConfigTreeBuilder(ConfigObject root) {
+        this.root = new Branch(checkNotNull(root));
+    }
+
+    /**
+     * Sets the value at {@code path} (a path expression, as accepted by
+     * {@link ConfigUtil#splitPath(String)}), replacing any value that is
+     * already there or at any prefix of {@code path} that is not an
+     * object. Like {@code withValue}, throws
+     * {@code ConfigException.BadPath} if {@code path} is not a valid path
+     * expression.
+     */
+    public ConfigTreeBuilder put(String path, ConfigValue value) {
+
+        checkNotNull(path);
+        checkNotNull(value);
+
+        if (built) {
+            throw new IllegalStateException("Already built");
+        }
+
+        List<String> keys = ConfigUtil.splitPath(path);
+        Branch branch = root;
+
+        // Like withValue, every object that has to be created for this
+        // entry is described by the path below the first of them.
+        String createdDescription = null;
+
+        for (int i = 0; i < keys.size() - 1; i++) {
+
+            Branch child = branch.existingChild(keys.get(i));
+
+            if (child == null) {
+
+                if (createdDescription == null) {
+                    createdDescription = String.format(
+                        "withValue(%s)",
+                        ConfigUtil.joinPath(keys.subList(i + 1, keys.size()))
+                    );
+                }
+
+                child = new Branch(
+                    ConfigFactory.empty(createdDescription).root());
+                branch.children.put(keys.get(i), child);
+            }
+
+            branch = child;
+        }
+
+        branch.children.put(keys.get(keys.size() - 1), value);
+
+        return this;
+    }
+
+    public ConfigObject build() {
+
+        if (built) {
+            throw new IllegalStateException("Already built");
+        }
+
+        built = true;
+
+        return root.build();
+    }
+
+    /**
+     * An object under construction.
+     */
+    private static final class Branch {
+
+        /**
+         * The object whose origin the built object has, and whose
+         * entries it started with.
+         */
+        private final ConfigObject base;
+
+        /**
+         * Each value is either a {@link ConfigValue} or a {@link Branch}.
+         */
+        private final Map<String, Object> children = new LinkedHashMap<>();
+
+        private Branch(ConfigObject base) {
+
+            this.base = base;
+
+            for (Map.Entry<String, ConfigValue> entry : base.entrySet()) {
+                children.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        /**
+         * The branch at {@code key}, or {@code null} if the value there
+         * (if any) isn't an object.
+         */
+        private Branch existingChild(String key) {
+
+            Object child = children.get(key);
+
+            if (child instanceof ConfigObject) {
+                child = new Branch((ConfigObject) child);
+                children.put(key, child);
+            }
+
+            if (child instanceof Branch) {
+                return (Branch) child;
+            }
+
+            return null;
+        }
+
+        private ConfigObject build() {
+
+            if (children.isEmpty()) {
+                return base;
+            }
+
+            List<ConfigObject> parts = new ArrayList<>(children.size());
+
+            for (Map.Entry<String, Object> entry : children.entrySet()) {
+
+                String key = entry.getKey();
+                Object child = entry.getValue();
+                ConfigValue value;
+
+                if (child instanceof Branch) {
+                    value = ((Branch) child).build();
+                } else {
+                    value = (ConfigValue) child;
+                }
+
+                parts.add(base.withOnlyKey(key).withValue(key, value));
+            }
+
+            return merge(parts, 0, parts.size());
+        }
+
+        /**
+         * Merges the objects with indexes in {@code [from, to)}, which
+         * have disjoint keys and the same origin.
+         */
+        private static ConfigObject merge(
+            List<ConfigObject> parts,
+            int from,
+            int to
+        ) {
+            if (to - from == 1) {
+                return parts.get(from);
+            }
+
+            int middle = (from + to) >>> 1;
+
+            return merge(parts, from, middle)
+                .withFallback(merge(parts, middle, to));
+        }
+    }
+}
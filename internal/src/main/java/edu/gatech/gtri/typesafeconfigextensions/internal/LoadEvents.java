@@ -0,0 +1,279 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.internal;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * Java Flight Recorder events for the phases of loading a config.
+ *
+ * <p>The events are defined at runtime with {@code jdk.jfr.EventFactory},
+ * using reflection, because this project is compiled for JVMs that don't
+ * have JFR. On such a JVM, every {@link Event} is a no-op.</p>
+ *
+ * <p>Every event type has two fields: the name of a config source (empty
+ * if the event doesn't concern a single source) and the number of the
+ * load pass (0 if not applicable).</p>
+ */
+public final class LoadEvents {
+
+    private LoadEvents() { }
+
+    private static final String CATEGORY = "Typesafe Config";
+
+    private static final String NAME_PREFIX =
+        "edu.gatech.gtri.typesafeconfigextensions.";
+
+    /**
+     * The kinds of events.
+     */
+    public enum Type {
+
+        LOAD("Load", "Config Load"),
+        SOURCE_LOAD("SourceLoad", "Config Source Load"),
+        RESOLVE("Resolve", "Config Resolve"),
+        JNDI_TRAVERSAL("JndiTraversal", "JNDI Config Traversal");
+
+        private final String name;
+        private final String label;
+
+        Type(String name, String label) {
+            this.name = name;
+            this.label = label;
+        }
+    }
+
+    /**
+     * An event that has begun; call {@link #commit()} when the phase it
+     * measures has ended.
+     *
+     * <p>Events are immutable, so the same no-op event can be handed out
+     * whenever nothing is being recorded.</p>
+     */
+    public static final class Event {
+
+        private final Object jfrEvent;
+        private final int pass;
+
+        private Event(Object jfrEvent, int pass) {
+            this.jfrEvent = jfrEvent;
+            this.pass = pass;
+        }
+
+        /**
+         * This event with a different pass number, for events that don't
+         * know it until they end.
+         */
+        public Event pass(int pass) {
+            return new Event(jfrEvent, pass);
+        }
+
+        int pass() {
+            return pass;
+        }
+
+        /**
+         * Whether this event is being recorded by JFR.
+         */
+        boolean recorded() {
+            return jfrEvent != null;
+        }
+
+        public void commit() {
+
+            if (jfrEvent != null) {
+                JFR.commit(jfrEvent, pass);
+            }
+        }
+    }
+
+    private static final Event NO_EVENT = new Event(null, 0);
+
+    /**
+     * Begins an event of the given type.
+     *
+     * @param sourceName The name of a config source, or {@code ""}.
+     */
+    public static Event begin(Type type, String sourceName, int pass) {
+
+        checkNotNull(type);
+        checkNotNull(sourceName);
+
+        if (JFR == null) {
+            return NO_EVENT;
+        }
+
+        Object jfrEvent = JFR.begin(type, sourceName);
+
+        if (jfrEvent == null) {
+            return NO_EVENT;
+        }
+
+        return new Event(jfrEvent, pass);
+    }
+
+    private static final Jfr JFR = Jfr.loadOrNull();
+
+    /**
+     * Reflective access to the parts of {@code jdk.jfr} that are needed.
+     */
+    private static final class Jfr {
+
+        private static final int SOURCE_FIELD = 0;
+        private static final int PASS_FIELD = 1;
+
+        private final List<Object> factories;
+        private final List<Object> eventTypes;
+        private final Method newEvent;
+        private final Method isEnabled;
+        private final Method set;
+        private final Method begin;
+        private final Method end;
+        private final Method commit;
+
+        private Jfr(List<Object> factories, Class<?> factoryClass,
+                Class<?> eventTypeClass, Class<?> eventClass)
+                throws ReflectiveOperationException {
+
+            Method getEventType = factoryClass.getMethod("getEventType");
+
+            this.factories = factories;
+            this.eventTypes = new ArrayList<>();
+
+            for (Object factory : factories) {
+                eventTypes.add(getEventType.invoke(factory));
+            }
+
+            this.newEvent = factoryClass.getMethod("newEvent");
+            this.isEnabled = eventTypeClass.getMethod("isEnabled");
+            this.set = eventClass.getMethod("set", int.class, Object.class);
+            this.begin = eventClass.getMethod("begin");
+            this.end = eventClass.getMethod("end");
+            this.commit = eventClass.getMethod("commit");
+        }
+
+        /**
+         * @return {@code null} if JFR isn't available.
+         */
+        static Jfr loadOrNull() {
+
+            try {
+                return load();
+            } catch (ReflectiveOperationException | LinkageError
+                    | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static Jfr load() throws ReflectiveOperationException {
+
+            Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            Class<?> annotationElement =
+                Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> valueDescriptor =
+                Class.forName("jdk.jfr.ValueDescriptor");
+
+            Class<?> name = Class.forName("jdk.jfr.Name");
+            Class<?> label = Class.forName("jdk.jfr.Label");
+            Class<?> category = Class.forName("jdk.jfr.Category");
+
+            Constructor<?> newAnnotation = annotationElement
+                .getConstructor(Class.class, Object.class);
+            Constructor<?> newField = valueDescriptor
+                .getConstructor(Class.class, String.class, List.class);
+            Method create = factoryClass
+                .getMethod("create", List.class, List.class);
+
+            List<Object> fields = new ArrayList<>();
+            fields.add(newField.newInstance(
+                String.class,
+                "sourceName",
+                Collections.singletonList(
+                    newAnnotation.newInstance(label, "Source Name"))
+            ));
+            fields.add(newField.newInstance(
+                int.class,
+                "pass",
+                Collections.singletonList(
+                    newAnnotation.newInstance(label, "Pass"))
+            ));
+
+            List<Object> factories = new ArrayList<>();
+
+            for (Type type : Type.values()) {
+
+                List<Object> annotations = new ArrayList<>();
+                annotations.add(newAnnotation.newInstance(
+                    name, NAME_PREFIX + type.name));
+                annotations.add(newAnnotation.newInstance(
+                    label, type.label));
+                annotations.add(newAnnotation.newInstance(
+                    category, new String[] {CATEGORY}));
+
+                factories.add(create.invoke(null, annotations, fields));
+            }
+
+            return new Jfr(factories, factoryClass, eventTypeClass,
+                eventClass);
+        }
+
+        /**
+         * Checks whether the event type is being recorded before creating
+         * an event, so that nothing is allocated while JFR is idle.
+         *
+         * @return {@code null} if the event type isn't being recorded.
+         */
+        Object begin(Type type, String sourceName) {
+
+            try {
+
+                if (!(Boolean) isEnabled.invoke(
+                        eventTypes.get(type.ordinal()))) {
+                    return null;
+                }
+
+                Object event = newEvent.invoke(factories.get(type.ordinal()));
+
+                set.invoke(event, SOURCE_FIELD, sourceName);
+                begin.invoke(event);
+
+                return event;
+
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        void commit(Object event, int pass) {
+
+            try {
+                set.invoke(event, PASS_FIELD, pass);
+                end.invoke(event);
+                commit.invoke(event);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.internal
+
+import org.specs2.mutable._
+import com.typesafe.config.{Config, ConfigFactory, ConfigValue, ConfigValueFactory}
+import scala.collection.JavaConverters._
+
+class ConfigTreeBuilderSpec extends Specification {
+
+  "ConfigTreeBuilder" >> {
+
+    def value(x: AnyRef): ConfigValue = ConfigValueFactory.fromAnyRef(x)
+
+    def origins(config: Config): Map[String, String] =
+      (config.entrySet.asScala.map(e => e.getKey -> e.getValue.origin.description) ++
+        Seq("a", "a.b", "c", "x", "x.y").filter(config.hasPath).map(p => p -> config.getValue(p).origin.description) +
+        ("" -> config.root.origin.description)).toMap
+
+    def sameAsWithValue(base: Config, entries: (String, ConfigValue)*) = {
+      val expected = entries.foldLeft(base) { case (c, (p, v)) => c.withValue(p, v) }
+      val builder = new ConfigTreeBuilder(base.root)
+      for ((p, v) <- entries) builder.put(p, v)
+      val actual = builder.build.toConfig
+      (actual shouldEqual expected) and (origins(actual) shouldEqual origins(expected))
+    }
+
+    "builds nested paths" ! sameAsWithValue(ConfigFactory.empty("root"),
+      "a.b.c" -> value("1"), "a.b.d" -> value("2"), "a.e" -> value("3"), "c" -> value("4"))
+
+    "replaces values that aren't objects" ! sameAsWithValue(ConfigFactory.empty("root"),
+      "a" -> value("1"), "a.b" -> value("2"), "c.d" -> value("3"), "c" -> value("4"))
+
+    "adds to existing objects" ! sameAsWithValue(ConfigFactory.parseString("a { b: 1, z: 2 }, x { y: 3 }"),
+      "a.c" -> value("4"), "x.y.z" -> value("5"), "\"quoted.key\"" -> value("6"))
+
+    "builds wide trees" ! sameAsWithValue(ConfigFactory.empty("root"),
+      (1 to 2000).map(i => ("k" + (i % 7) + ".v" + i) -> value(Integer.valueOf(i))): _*)
+
+    "keeps an empty root" ! (
+      new ConfigTreeBuilder(ConfigFactory.empty("root").root).build.origin.description shouldEqual "root" )
+
+    "can only be built once" ! {
+      val builder = new ConfigTreeBuilder(ConfigFactory.empty.root)
+      builder.build
+      builder.build must throwA[IllegalStateException]
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.gatech.gtri.typesafeconfigextensions.internal
+
+import org.specs2.mutable._
+import LoadEvents.Type
+
+class LoadEventsSpec extends Specification {
+
+  "LoadEvents" >> {
+
+    "records nothing while no recording is running" ! {
+      val event = LoadEvents.begin(Type.SOURCE_LOAD, "source", 1)
+      event.commit()
+      event.recorded must beFalse
+    }
+
+    "carries the pass through" ! {
+      val event = LoadEvents.begin(Type.LOAD, "", 0)
+      (event.pass(3).pass shouldEqual 3) and (event.pass shouldEqual 0)
+    }
+
+    "does not change the events that are handed out later" ! {
+      LoadEvents.begin(Type.LOAD, "", 0).pass(5)
+      LoadEvents.begin(Type.LOAD, "", 0).pass shouldEqual 0
+    }
+  }
+}
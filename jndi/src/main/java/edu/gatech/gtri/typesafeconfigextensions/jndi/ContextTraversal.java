@@ -0,0 +1,401 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import edu.gatech.gtri.typesafeconfigextensions.internal.ConfigTreeBuilder;
+import edu.gatech.gtri.typesafeconfigextensions.internal.Option;
+
+import javax.naming.Binding;
+import javax.naming.NamingException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.jndi.TraversalSettings.NO_TIMEOUT;
+
+/**
+ * Converts a {@link ContextWrapper} and all of its subcontexts
+ * {@link JndiContext#toConfig() to Config}.
+ *
+ * <p>Each listing of a context and each lookup is a step. The calling
+ * thread starts the steps (on the {@link TraversalSettings#executor()
+ * executor}, if there is one) and waits for their results one at a time,
+ * starting new steps for the subcontexts it finds. Steps never wait for
+ * each other, so there is no risk of running out of threads. The
+ * values are collected into a tree of {@link Node}s, which becomes a
+ * {@link Config} once every step has finished, timed out or failed.</p>
+ */
+final class ContextTraversal {
+
+    private final TraversalSettings settings;
+    private final Deque<Step> steps = new ArrayDeque<>();
+
+    /**
+     * In terms of {@link System#nanoTime()}; only meaningful if there is
+     * a traversal timeout.
+     */
+    private final long deadline;
+
+    private ContextTraversal(TraversalSettings settings) {
+
+        this.settings = settings;
+
+        this.deadline = System.nanoTime() + settings.traversalTimeoutNanos();
+    }
+
+    static Config traverse(ContextWrapper root, TraversalSettings settings) {
+
+        checkNotNull(root);
+        checkNotNull(settings);
+
+        ContextTraversal traversal = new ContextTraversal(settings);
+
+        Node node = new Node(root, "");
+        traversal.list(node);
+        traversal.run();
+
+        return build(node).toConfig();
+    }
+
+    /**
+     * A context, and what has been read from it so far.
+     */
+    private static final class Node {
+
+        private final ContextWrapper context;
+        private final String name;
+
+        /**
+         * In the order the names were listed. Each value is a
+         * {@link ConfigValue}, a {@link Node}, or {@code null} if there
+         * is nothing to convert (yet).
+         */
+        private final Map<String, Object> entries = new LinkedHashMap<>();
+
+        private Node(ContextWrapper context, String name) {
+            this.context = context;
+            this.name = name;
+        }
+
+        private String nameOf(String entryName) {
+
+            if (name.isEmpty()) {
+                return entryName;
+            }
+
+            return name + "/" + entryName;
+        }
+    }
+
+    private abstract static class Step {
+
+        private final FutureTask<Object> task;
+        private final String name;
+
+        /**
+         * In terms of {@link System#nanoTime()}; only meaningful once
+         * {@link #started}. The lookup timeout counts from here rather
+         * than from when the step was queued, so that steps waiting
+         * behind others for a thread don't time out before they run.
+         */
+        private volatile long startTime;
+        private volatile boolean started;
+
+        Step(final Callable<Object> callable, String name) {
+
+            this.task = new FutureTask<>(new Callable<Object>() {
+
+                @Override
+                public Object call() throws Exception {
+                    startTime = System.nanoTime();
+                    started = true;
+                    return callable.call();
+                }
+            });
+
+            this.name = name;
+        }
+
+        abstract void finished(Object result);
+    }
+
+    private void list(final Node node) {
+
+        start(new Step(
+            new Callable<Object>() {
+
+                @Override
+                public Object call() throws NamingException {
+                    return node.context.entries();
+                }
+            },
+            node.name
+        ) {
+
+            @Override
+            void finished(Object result) {
+
+                @SuppressWarnings("unchecked")
+                List<Binding> entries = (List<Binding>) result;
+
+                for (Binding entry : entries) {
+
+                    node.entries.put(entry.getName(), null);
+
+                    if (entry.getObject() != null) {
+                        read(node, entry.getName(), entry.getObject());
+                    } else {
+                        lookup(node, entry.getName());
+                    }
+                }
+            }
+        });
+    }
+
+    private void lookup(final Node node, final String name) {
+
+        start(new Step(
+            new Callable<Object>() {
+
+                @Override
+                public Object call() throws NamingException {
+                    return node.context.lookup(name);
+                }
+            },
+            node.nameOf(name)
+        ) {
+
+            @Override
+            void finished(Object result) {
+                read(node, name, result);
+            }
+        });
+    }
+
+    private void read(Node node, String name, Object object) {
+
+        if (object instanceof javax.naming.Context) {
+
+            Node child = new Node(
+                node.context.withJndiContext((javax.naming.Context) object),
+                node.nameOf(name)
+            );
+
+            node.entries.put(name, child);
+            list(child);
+
+        } else {
+
+            Option<? extends ConfigValue> value =
+                node.context.configValue(object);
+
+            if (value.isSome()) {
+                node.entries.put(name, value.get());
+            }
+        }
+    }
+
+    private void start(Step step) {
+
+        Executor executor = settings.executor();
+
+        if (executor != null) {
+            executor.execute(step.task);
+        }
+
+        steps.add(step);
+    }
+
+    /**
+     * Waits for each step in turn, until there are none left.
+     */
+    private void run() {
+
+        try {
+
+            while (!steps.isEmpty()) {
+
+                Step step = steps.remove();
+
+                Object result;
+
+                try {
+                    result = await(step);
+                } catch (TimeoutException | NamingException e) {
+                    settings.listener().skipped(step.name, e);
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    settings.listener().skipped(step.name, e);
+                    skipAll(e);
+                    return;
+                }
+
+                step.finished(result);
+            }
+        } finally {
+
+            // Only left over if a step threw, or the thread was interrupted.
+            for (Step step : steps) {
+                step.task.cancel(true);
+            }
+        }
+    }
+
+    private Object await(Step step)
+    throws TimeoutException, NamingException, InterruptedException {
+
+        if (settings.executor() == null) {
+
+            // A lookup on the calling thread can't be cut short, so the
+            // only thing to do is not to start it.
+            if (settings.traversalTimeoutNanos() != NO_TIMEOUT
+                    && deadline - System.nanoTime() <= 0) {
+                throw timedOut(step);
+            }
+
+            step.task.run();
+        }
+
+        boolean lookupBounded = settings.lookupTimeoutNanos() != NO_TIMEOUT;
+        boolean traversalBounded =
+            settings.traversalTimeoutNanos() != NO_TIMEOUT;
+
+        try {
+
+            if (!lookupBounded && !traversalBounded) {
+                return step.task.get();
+            }
+
+            while (true) {
+
+                long now = System.nanoTime();
+                boolean started = step.started;
+
+                // Until the step starts, its lookup timeout can't end any
+                // sooner than a full timeout from now.
+                long waitUntil = now;
+                boolean lastWait = started;
+
+                if (lookupBounded) {
+
+                    if (started) {
+                        waitUntil = step.startTime
+                            + settings.lookupTimeoutNanos();
+                    } else {
+                        waitUntil = now + settings.lookupTimeoutNanos();
+                    }
+                }
+
+                if (traversalBounded
+                        && (!lookupBounded || deadline - waitUntil < 0)) {
+                    waitUntil = deadline;
+                    lastWait = true;
+                }
+
+                try {
+                    return step.task.get(
+                        Math.max(waitUntil - now, 0),
+                        TimeUnit.NANOSECONDS
+                    );
+                } catch (TimeoutException e) {
+
+                    if (lastWait) {
+                        throw e;
+                    }
+                }
+            }
+
+        } catch (TimeoutException e) {
+            step.task.cancel(true);
+            throw timedOut(step);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static TimeoutException timedOut(Step step) {
+
+        return new TimeoutException(String.format(
+            "Timed out reading JNDI name \"%s\"", step.name));
+    }
+
+    private void skipAll(Exception cause) {
+
+        while (!steps.isEmpty()) {
+
+            Step step = steps.remove();
+
+            step.task.cancel(true);
+            settings.listener().skipped(step.name, cause);
+        }
+    }
+
+    /**
+     * Lookups only throw {@link NamingException}s; anything else is
+     * rethrown as-is, as it would be if the lookup had been made on the
+     * calling thread.
+     */
+    private static NamingException rethrow(Throwable cause) {
+
+        if (cause instanceof NamingException) {
+            return (NamingException) cause;
+        }
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        throw new IllegalStateException(cause);
+    }
+
+    private static ConfigObject build(Node node) {
+
+        ConfigTreeBuilder config =
+            new ConfigTreeBuilder(node.context.emptyConfig().root());
+
+        for (Map.Entry<String, Object> entry : node.entries.entrySet()) {
+
+            Object value = entry.getValue();
+
+            if (value instanceof Node) {
+                config.put(entry.getKey(), build((Node) value));
+            } else if (value != null) {
+                config.put(entry.getKey(), (ConfigValue) value);
+            }
+        }
+
+        return config.build();
+    }
+}
@@ -17,22 +17,23 @@
 package edu.gatech.gtri.typesafeconfigextensions.jndi;
 
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigParseOptions;
 import com.typesafe.config.ConfigValue;
+import edu.gatech.gtri.typesafeconfigextensions.internal.LoadEvents;
 import edu.gatech.gtri.typesafeconfigextensions.internal.Option;
 
+import javax.naming.Binding;
 import javax.naming.NameClassPair;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.OperationNotSupportedException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 import static edu.gatech.gtri.typesafeconfigextensions.jndi.JndiContexts.noContext;
-import static edu.gatech.gtri.typesafeconfigextensions.internal.Option.none;
-import static edu.gatech.gtri.typesafeconfigextensions.internal.Option.some;
 import static edu.gatech.gtri.typesafeconfigextensions.jndi.OptionalJndiOriginDescription.noOriginDescription;
 
 final class ContextWrapper
@@ -41,24 +42,36 @@ extends BaseContext {
     private final javax.naming.Context jndiContext;
     private final OptionalJndiOriginDescription originDescription;
     private final ConfigParseOptions parseOptions;
+    private final JndiTraversal traversal;
+    private final JndiLookupFilter lookupFilter;
+    private final TraversalSettings settings;
 
     ContextWrapper(javax.naming.Context jndiContext) {
 
         this(
             checkNotNull(jndiContext),
             noOriginDescription(),
-            ConfigParseOptions.defaults()
+            ConfigParseOptions.defaults(),
+            JndiTraversal.LIST_AND_LOOKUP,
+            JndiLookupFilter.configTypes(),
+            TraversalSettings.defaults()
         );
     }
 
     ContextWrapper(
         javax.naming.Context jndiContext,
         OptionalJndiOriginDescription originDescription,
-        ConfigParseOptions parseOptions
+        ConfigParseOptions parseOptions,
+        JndiTraversal traversal,
+        JndiLookupFilter lookupFilter,
+        TraversalSettings settings
     ) {
         this.jndiContext = checkNotNull(jndiContext);
         this.originDescription = checkNotNull(originDescription);
         this.parseOptions = checkNotNull(parseOptions);
+        this.traversal = checkNotNull(traversal);
+        this.lookupFilter = checkNotNull(lookupFilter);
+        this.settings = checkNotNull(settings);
     }
 
     @Override
@@ -68,7 +81,10 @@ extends BaseContext {
         return new ContextWrapper(
             jndiContext,
             checkNotNull(originDescription),
-            parseOptions
+            parseOptions,
+            traversal,
+            lookupFilter,
+            settings
         );
     }
 
@@ -78,50 +94,89 @@ extends BaseContext {
         return new ContextWrapper(
             jndiContext,
             originDescription,
-            checkNotNull(parseOptions)
+            checkNotNull(parseOptions),
+            traversal,
+            lookupFilter,
+            settings
         );
     }
 
-    private JndiContext withJndiContext(javax.naming.Context jndiContext) {
+    @Override
+    public JndiContext withTraversal(JndiTraversal traversal) {
 
         return new ContextWrapper(
-            checkNotNull(jndiContext),
+            jndiContext,
             originDescription,
-            parseOptions
+            parseOptions,
+            checkNotNull(traversal),
+            lookupFilter,
+            settings
         );
     }
 
-    private JndiContext withNoJndiContext() {
+    @Override
+    public JndiContext withLookupFilter(JndiLookupFilter lookupFilter) {
 
-        return noContext()
-            .withOriginDescription(originDescription)
-            .withParseOptions(parseOptions);
+        return new ContextWrapper(
+            jndiContext,
+            originDescription,
+            parseOptions,
+            traversal,
+            checkNotNull(lookupFilter),
+            settings
+        );
     }
 
-    List<String> names() {
+    @Override
+    public JndiContext withExecutor(Executor executor) {
+        return withSettings(settings.withExecutor(executor));
+    }
 
-        try {
+    @Override
+    public JndiContext withLookupTimeout(long timeout, TimeUnit unit) {
+        return withSettings(settings.withLookupTimeout(timeout, unit));
+    }
 
-            NamingEnumeration<NameClassPair> enumeration =
-                jndiContext.list("");
+    @Override
+    public JndiContext withTraversalTimeout(long timeout, TimeUnit unit) {
+        return withSettings(settings.withTraversalTimeout(timeout, unit));
+    }
 
-            try {
+    @Override
+    public JndiContext
+    withTraversalListener(JndiTraversalListener listener) {
+        return withSettings(settings.withListener(listener));
+    }
 
-                List<String> names = new ArrayList<>();
+    private JndiContext withSettings(TraversalSettings settings) {
 
-                while (enumeration.hasMore()) {
+        return new ContextWrapper(
+            jndiContext,
+            originDescription,
+            parseOptions,
+            traversal,
+            lookupFilter,
+            settings
+        );
+    }
 
-                    try {
-                        names.add(enumeration.next().getName());
-                    } catch (NamingException ignored) { }
-                }
-                return names;
-            } finally {
-                enumeration.close();
-            }
-        } catch (NamingException e) {
-            return Arrays.asList();
-        }
+    ContextWrapper withJndiContext(javax.naming.Context jndiContext) {
+
+        return new ContextWrapper(
+            checkNotNull(jndiContext),
+            originDescription,
+            parseOptions,
+            traversal,
+            lookupFilter,
+            settings
+        );
+    }
+
+    private JndiContext withNoJndiContext() {
+
+        return noContext()
+            .withOriginDescription(originDescription)
+            .withParseOptions(parseOptions);
     }
 
     @Override
@@ -144,49 +199,127 @@ extends BaseContext {
         }
     }
 
+    /**
+     * Emits a {@link LoadEvents.Type#JNDI_TRAVERSAL} event covering the
+     * whole traversal, including subcontexts.
+     */
     @Override
     public Config toConfig() {
 
-        Config config = emptyConfig();
+        String sourceName = "";
 
-        for (String name : names()) {
+        if (originDescription.isPresent()) {
+            sourceName = originDescription.get();
+        }
 
-            try {
+        LoadEvents.Event event = LoadEvents.begin(
+            LoadEvents.Type.JNDI_TRAVERSAL, sourceName, 0);
 
-                Option<? extends ConfigValue> configValue =
-                    configValue(jndiContext.lookup(name));
+        Config config = ContextTraversal.traverse(this, settings);
 
-                if (configValue.isSome()) {
-                    config = config.withValue(name, configValue.get());
-                }
-            } catch (NamingException ignored) { }
-        }
+        event.commit();
 
         return config;
     }
 
-    Option<? extends ConfigValue> configValue(Object object) {
+    /**
+     * The entries of the context that are to be converted, in the order
+     * that the provider lists them. Entries whose object is {@code null}
+     * are yet to be {@link #lookup(String) looked up}.
+     */
+    List<Binding> entries() throws NamingException {
 
-        if (object instanceof javax.naming.Context) {
+        if (traversal == JndiTraversal.LIST_BINDINGS) {
 
-            javax.naming.Context jndiContext = (javax.naming.Context) object;
-            return some(withJndiContext(jndiContext).toConfig().root());
+            try {
+                return bindings();
+            } catch (OperationNotSupportedException e) {
+                // Fall back to list() and lookup().
+            }
         }
 
-        if (object instanceof String) {
+        return names();
+    }
 
-            try {
+    /**
+     * The names in the context that the {@link JndiLookupFilter} allows
+     * to be looked up.
+     */
+    private List<Binding> names() throws NamingException {
 
-                return some(
-                    ConfigFactory.parseString(
-                        String.format("value: %s", (String) object),
-                        getParseOptions()
-                    ).root().get("value")
-                );
-            } catch (Exception ignored) { }
+        NamingEnumeration<NameClassPair> enumeration = jndiContext.list("");
+
+        List<Binding> entries = new ArrayList<>();
+
+        try {
+
+            while (enumeration.hasMore()) {
+
+                try {
+
+                    NameClassPair pair = enumeration.next();
+
+                    if (lookupFilter.allows(pair.getClassName())) {
+                        entries.add(new Binding(pair.getName(), null));
+                    }
+                } catch (NamingException ignored) { }
+            }
+        } catch (NamingException ignored) {
+            // Whatever was read before the failure is kept.
+        } finally {
+            close(enumeration);
         }
 
-        return none();
+        return entries;
+    }
+
+    private List<Binding> bindings() throws NamingException {
+
+        NamingEnumeration<Binding> enumeration = jndiContext.listBindings("");
+
+        List<Binding> entries = new ArrayList<>();
+
+        try {
+
+            while (enumeration.hasMore()) {
+
+                try {
+
+                    Binding binding = enumeration.next();
+
+                    // The object has already been created, but it is only
+                    // converted if the filter allows its class.
+                    if (lookupFilter.allows(binding.getClassName())) {
+                        entries.add(binding);
+                    }
+                } catch (NamingException ignored) { }
+            }
+        } catch (NamingException ignored) {
+            // As with list(), whatever was read before the failure is kept.
+        } finally {
+            close(enumeration);
+        }
+
+        return entries;
+    }
+
+    private static void close(NamingEnumeration<?> enumeration) {
+
+        try {
+            enumeration.close();
+        } catch (NamingException ignored) { }
+    }
+
+    Object lookup(String name) throws NamingException {
+        return jndiContext.lookup(name);
+    }
+
+    /**
+     * Subcontexts are not converted here; {@link ContextTraversal} does
+     * that.
+     */
+    Option<? extends ConfigValue> configValue(Object object) {
+        return JndiValues.configValue(object, getParseOptions());
     }
 
     ConfigParseOptions getParseOptions() {
@@ -19,6 +19,9 @@ package edu.gatech.gtri.typesafeconfigextensions.jndi;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigParseOptions;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Wraps {@link javax.naming.Context JNDI Context} in a friendlier
  * interface.
@@ -58,4 +61,62 @@ public interface JndiContext {
     JndiContext withOriginDescription(String originDescription);
 
     JndiContext withParseOptions(ConfigParseOptions parseOptions);
+
+    /**
+     * How the JNDI context is read when converting it
+     * {@link #toConfig() to Config}; {@link JndiTraversal#LIST_AND_LOOKUP}
+     * by default.
+     */
+    JndiContext withTraversal(JndiTraversal traversal);
+
+    /**
+     * Which names are looked up when converting the JNDI context
+     * {@link #toConfig() to Config}; {@link JndiLookupFilter#configTypes()}
+     * by default.
+     *
+     * <p>With {@link JndiTraversal#LIST_BINDINGS}, the provider has
+     * already looked up every name by the time it is listed, so the
+     * filter only decides which of the objects are converted.</p>
+     */
+    JndiContext withLookupFilter(JndiLookupFilter lookupFilter);
+
+    /**
+     * Makes the lookups, and lists the subcontexts, on {@code executor}
+     * when converting the JNDI context {@link #toConfig() to Config}, so
+     * that sibling subcontexts are read concurrently. The calling thread
+     * only waits for the results; lookups never wait for each other, so
+     * any {@link Executor} will do, however few threads it has.
+     *
+     * <p>Without an executor, each lookup is made in turn on the calling
+     * thread.</p>
+     */
+    JndiContext withExecutor(Executor executor);
+
+    /**
+     * The longest that converting the JNDI context
+     * {@link #toConfig() to Config} will wait for any one lookup (or
+     * listing of a context), counted from when it starts running on the
+     * {@link #withExecutor(Executor) executor}, so time spent queued
+     * behind other lookups doesn't count. A lookup that takes longer is
+     * cancelled, and its name is left out.
+     *
+     * <p>Lookups made on the calling thread can't be cut short, so this
+     * has no effect without an executor.</p>
+     */
+    JndiContext withLookupTimeout(long timeout, TimeUnit unit);
+
+    /**
+     * The longest that converting the JNDI context
+     * {@link #toConfig() to Config} may take as a whole. Once it has run
+     * out, lookups that haven't finished are cancelled (or, without an
+     * {@link #withExecutor(Executor) executor}, no more are made), and
+     * the {@code Config} holds whatever was read by then.
+     */
+    JndiContext withTraversalTimeout(long timeout, TimeUnit unit);
+
+    /**
+     * Is told about each name that is left out of the {@code Config}
+     * because its lookup timed out or failed.
+     */
+    JndiContext withTraversalListener(JndiTraversalListener listener);
 }
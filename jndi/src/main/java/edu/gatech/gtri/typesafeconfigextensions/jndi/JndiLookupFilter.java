@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNullCollectionElements;
+
+/**
+ * Which JNDI names are {@link javax.naming.Context#lookup(String) looked
+ * up} when converting a {@link JndiContext}
+ * {@link JndiContext#toConfig() to Config}, decided by the class names
+ * that {@link javax.naming.Context#list(String) list} reports for them.
+ *
+ * <p>Only strings, boxed primitives and subcontexts become config
+ * values, but looking a name up can have side effects: in a servlet
+ * container, looking up a {@code jdbc/} or {@code mail/} resource runs
+ * its {@link javax.naming.spi.ObjectFactory} and creates a connection
+ * pool or mail session, only for it to be discarded. With
+ * {@link #configTypes()}, such names are not looked up.</p>
+ *
+ * <p>With {@link JndiTraversal#LIST_BINDINGS}, the provider has already
+ * created every object by the time the filter sees it, so the filter
+ * only decides which objects are converted, and gives no protection
+ * against factories' side effects.</p>
+ *
+ * @see JndiContext#withLookupFilter(JndiLookupFilter)
+ */
+public final class JndiLookupFilter {
+
+    private static final JndiLookupFilter CONFIG_TYPES = new JndiLookupFilter(
+        false,
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class.getName(),
+            Boolean.class.getName(),
+            Integer.class.getName(),
+            Long.class.getName(),
+            Short.class.getName(),
+            Byte.class.getName(),
+            Double.class.getName(),
+            Float.class.getName(),
+            Character.class.getName(),
+            javax.naming.LinkRef.class.getName()
+        )))
+    );
+
+    private static final JndiLookupFilter ALL_TYPES = new JndiLookupFilter(
+        true,
+        Collections.<String>emptySet()
+    );
+
+    private final boolean allTypes;
+    private final Set<String> classNames;
+
+    private JndiLookupFilter(boolean allTypes, Set<String> classNames) {
+        this.allTypes = allTypes;
+        this.classNames = classNames;
+    }
+
+    /**
+     * Look up strings, boxed primitives, {@link javax.naming.Context}s,
+     * and {@link javax.naming.LinkRef links} (which may lead to any of
+     * them). Names whose class is not reported, or can't be loaded, are
+     * looked up too, since they might be any of them. This is the default.
+     */
+    public static JndiLookupFilter configTypes() {
+        return CONFIG_TYPES;
+    }
+
+    /**
+     * Look up every name, whatever its class.
+     */
+    public static JndiLookupFilter allTypes() {
+        return ALL_TYPES;
+    }
+
+    /**
+     * Also look up names of these classes, such as
+     * {@link javax.naming.Reference}s whose factories produce strings.
+     */
+    public JndiLookupFilter andClassNames(
+        String firstClassName,
+        String... moreClassNames
+    ) {
+        Set<String> names = new HashSet<>(classNames);
+        names.add(checkNotNull(firstClassName));
+        names.addAll(checkNotNullCollectionElements(
+            Arrays.asList(moreClassNames)));
+
+        return new JndiLookupFilter(
+            allTypes,
+            Collections.unmodifiableSet(names)
+        );
+    }
+
+    /**
+     * @param className As given by
+     *   {@link javax.naming.NameClassPair#getClassName()}; may be
+     *   {@code null}.
+     */
+    boolean allows(String className) {
+
+        if (allTypes || className == null || classNames.contains(className)) {
+            return true;
+        }
+
+        return mayBeContext(className);
+    }
+
+    /**
+     * The class is loaded without being initialized, so checking it has
+     * no side effects.
+     */
+    private static boolean mayBeContext(String className) {
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        if (loader == null) {
+            loader = JndiLookupFilter.class.getClassLoader();
+        }
+
+        try {
+
+            return javax.naming.Context.class.isAssignableFrom(
+                Class.forName(className, false, loader));
+
+        } catch (ClassNotFoundException | LinkageError e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+/**
+ * How a {@link JndiContext} reads a JNDI context when converting it
+ * {@link JndiContext#toConfig() to Config}.
+ *
+ * @see JndiContext#withTraversal(JndiTraversal)
+ */
+public enum JndiTraversal {
+
+    /**
+     * {@link javax.naming.Context#list(String) List} the names in each
+     * context, then {@link javax.naming.Context#lookup(String) look up}
+     * each name. This is the default.
+     */
+    LIST_AND_LOOKUP,
+
+    /**
+     * Get the names and objects in each context from a single
+     * {@link javax.naming.Context#listBindings(String) listBindings}
+     * enumeration, which halves the number of naming operations (and,
+     * for remote providers such as LDAP, round trips).
+     *
+     * <p>Providers that don't support {@code listBindings} are read as
+     * with {@link #LIST_AND_LOOKUP}.</p>
+     *
+     * <p>The provider creates every bound object while listing them,
+     * running the {@link javax.naming.spi.ObjectFactory} of each data
+     * source or mail session, before the {@link JndiLookupFilter} sees
+     * it; the filter then only decides which objects are converted. So
+     * this gives no protection against factories' side effects.</p>
+     */
+    LIST_BINDINGS
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+/**
+ * Is told about each JNDI name that was left out when converting a
+ * {@link JndiContext} {@link JndiContext#toConfig() to Config}, so that
+ * a partial result can be told apart from a complete one.
+ *
+ * <p>Names whose class is not allowed by the {@link JndiLookupFilter},
+ * and values that can't be converted, are left out as a matter of
+ * course and are not reported.</p>
+ *
+ * @see JndiContext#withTraversalListener(JndiTraversalListener)
+ */
+public interface JndiTraversalListener {
+
+    /**
+     * Called on the thread that invoked {@link JndiContext#toConfig()}.
+     *
+     * @param name The JNDI name that was skipped, relative to the
+     *   context being converted. If a context couldn't be listed, this
+     *   is its name (empty for the context being converted), and it is
+     *   left empty.
+     * @param cause A {@link java.util.concurrent.TimeoutException} if a
+     *   timeout ran out, or the {@link javax.naming.NamingException}
+     *   that the provider threw.
+     */
+    void skipped(String name, Exception cause);
+}
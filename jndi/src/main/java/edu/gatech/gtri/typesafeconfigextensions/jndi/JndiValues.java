@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import edu.gatech.gtri.typesafeconfigextensions.internal.Option;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Option.none;
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Option.some;
+
+/**
+ * Converts JNDI values (other than subcontexts) to {@link ConfigValue}s.
+ *
+ * <p>A string is parsed as the value of a HOCON field, so that JNDI
+ * entries can hold lists, objects and substitutions. Most are plain
+ * words, paths and numbers, though, and building a parser for each one
+ * is wasteful; those are converted directly, to the same value (with
+ * the same origin) that parsing would have given.</p>
+ *
+ * <p>Boxed primitives, which {@code <Environment>} entries may be
+ * declared as, are converted directly too.</p>
+ */
+final class JndiValues {
+
+    /**
+     * What the parser calls a string without an origin description.
+     */
+    private static final String DEFAULT_ORIGIN_DESCRIPTION = "String";
+
+    private JndiValues() { }
+
+    static Option<? extends ConfigValue> configValue(
+        Object object,
+        ConfigParseOptions parseOptions
+    ) {
+        checkNotNull(parseOptions);
+
+        if (object instanceof String) {
+            return stringValue((String) object, parseOptions);
+        }
+
+        if (object instanceof Boolean
+                || object instanceof Integer
+                || object instanceof Long
+                || object instanceof Short
+                || object instanceof Byte
+                || object instanceof Double
+                || object instanceof Float) {
+
+            return some(fromAnyRef(object, parseOptions));
+        }
+
+        if (object instanceof Character) {
+            return some(fromAnyRef(object.toString(), parseOptions));
+        }
+
+        return none();
+    }
+
+    private static Option<? extends ConfigValue> stringValue(
+        String string,
+        ConfigParseOptions parseOptions
+    ) {
+        Object plain = plainValue(string);
+
+        if (plain != null) {
+            return some(fromAnyRef(plain, parseOptions));
+        }
+
+        try {
+
+            return some(
+                ConfigFactory.parseString(
+                    String.format("value: %s", string),
+                    parseOptions
+                ).root().get("value")
+            );
+        } catch (Exception ignored) {
+            return none();
+        }
+    }
+
+    /**
+     * @return The value that {@code string} would be parsed as, or
+     *   {@code null} if it can only be found out by parsing it.
+     */
+    static Object plainValue(String string) {
+
+        if (string.equals("true") || string.equals("false")) {
+            return Boolean.valueOf(string);
+        }
+
+        if (isWholeNumber(string)) {
+
+            long number;
+
+            try {
+                number = Long.parseLong(string);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+
+            if (number == (int) number) {
+                return Integer.valueOf((int) number);
+            }
+
+            return Long.valueOf(number);
+        }
+
+        if (isDecimalNumber(string)) {
+
+            Double number = Double.valueOf(string);
+
+            // Anything else (1.50, 1e5) is left to the parser.
+            if (number.toString().equals(string)) {
+                return number;
+            }
+
+            return null;
+        }
+
+        if (isUnquotedWord(string) && !string.equals("null")) {
+            return string;
+        }
+
+        return null;
+    }
+
+    /**
+     * As HOCON writes them: an optional minus sign and no leading zeros.
+     */
+    private static boolean isWholeNumber(String string) {
+
+        int start = 0;
+
+        if (string.startsWith("-")) {
+            start = 1;
+        }
+
+        if (string.length() == start) {
+            return false;
+        }
+
+        if (string.charAt(start) == '0') {
+            return string.equals("0");
+        }
+
+        for (int i = start; i < string.length(); i++) {
+
+            if (!isAsciiDigit(string.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isDecimalNumber(String string) {
+
+        int point = string.indexOf('.');
+
+        if (point < 0) {
+            return false;
+        }
+
+        String fraction = string.substring(point + 1);
+
+        if (fraction.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < fraction.length(); i++) {
+
+            if (!isAsciiDigit(fraction.charAt(i))) {
+                return false;
+            }
+        }
+
+        return isWholeNumber(string.substring(0, point));
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Letters, digits and {@code - _ . /}, starting with a letter,
+     * {@code _} or {@code /}, and without {@code //} (which would start
+     * a comment). The parser reads such a string as itself.
+     */
+    private static boolean isUnquotedWord(String string) {
+
+        if (string.isEmpty() || string.contains("//")) {
+            return false;
+        }
+
+        char first = string.charAt(0);
+
+        if (!Character.isLetter(first) && first != '_' && first != '/') {
+            return false;
+        }
+
+        for (int i = 1; i < string.length(); i++) {
+
+            char c = string.charAt(i);
+
+            if (!Character.isLetterOrDigit(c)
+                    && c != '-' && c != '_' && c != '.' && c != '/') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The value has the origin that the parser would have given it: the
+     * description from the parse options, on line 1.
+     */
+    private static ConfigValue fromAnyRef(
+        Object object,
+        ConfigParseOptions parseOptions
+    ) {
+        String description = parseOptions.getOriginDescription();
+
+        if (description == null) {
+            description = DEFAULT_ORIGIN_DESCRIPTION;
+        }
+
+        return ConfigValueFactory.fromAnyRef(object, description + ": 1");
+    }
+}
@@ -20,6 +20,9 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigParseOptions;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
 import static edu.gatech.gtri.typesafeconfigextensions.jndi.JndiContexts.noContext;
 
@@ -77,4 +80,63 @@ final class NoContext extends BaseContext {
             checkNotNull(parseOptions)
         );
     }
+
+    /**
+     * There is nothing to traverse, so the traversal is ignored.
+     */
+    @Override
+    public JndiContext withTraversal(JndiTraversal traversal) {
+
+        checkNotNull(traversal);
+
+        return this;
+    }
+
+    /**
+     * There is nothing to look up, so the filter is ignored.
+     */
+    @Override
+    public JndiContext withLookupFilter(JndiLookupFilter lookupFilter) {
+
+        checkNotNull(lookupFilter);
+
+        return this;
+    }
+
+    /**
+     * There is nothing to look up, so the executor, the timeouts and the
+     * listener are ignored.
+     */
+    @Override
+    public JndiContext withExecutor(Executor executor) {
+
+        checkNotNull(executor);
+
+        return this;
+    }
+
+    @Override
+    public JndiContext withLookupTimeout(long timeout, TimeUnit unit) {
+
+        checkNotNull(unit);
+
+        return this;
+    }
+
+    @Override
+    public JndiContext withTraversalTimeout(long timeout, TimeUnit unit) {
+
+        checkNotNull(unit);
+
+        return this;
+    }
+
+    @Override
+    public JndiContext
+    withTraversalListener(JndiTraversalListener listener) {
+
+        checkNotNull(listener);
+
+        return this;
+    }
 }
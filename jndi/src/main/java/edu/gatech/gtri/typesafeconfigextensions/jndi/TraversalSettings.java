@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static edu.gatech.gtri.typesafeconfigextensions.internal.Check.checkNotNull;
+
+/**
+ * How a {@link ContextTraversal} is run: on which {@link Executor}, with
+ * which timeouts, and who is told about the names it skips.
+ */
+final class TraversalSettings {
+
+    /**
+     * A timeout that never runs out.
+     */
+    static final long NO_TIMEOUT = -1;
+
+    private static final JndiTraversalListener IGNORE_SKIPPED =
+        new JndiTraversalListener() {
+
+            @Override
+            public void skipped(String name, Exception cause) { }
+        };
+
+    private static final TraversalSettings DEFAULTS = new TraversalSettings(
+        null,
+        NO_TIMEOUT,
+        NO_TIMEOUT,
+        IGNORE_SKIPPED
+    );
+
+    private final Executor executor;
+    private final long lookupTimeoutNanos;
+    private final long traversalTimeoutNanos;
+    private final JndiTraversalListener listener;
+
+    private TraversalSettings(
+        Executor executor,
+        long lookupTimeoutNanos,
+        long traversalTimeoutNanos,
+        JndiTraversalListener listener
+    ) {
+        this.executor = executor;
+        this.lookupTimeoutNanos = lookupTimeoutNanos;
+        this.traversalTimeoutNanos = traversalTimeoutNanos;
+        this.listener = listener;
+    }
+
+    /**
+     * One lookup at a time on the calling thread, without timeouts.
+     */
+    static TraversalSettings defaults() {
+        return DEFAULTS;
+    }
+
+    TraversalSettings withExecutor(Executor executor) {
+
+        return new TraversalSettings(
+            checkNotNull(executor),
+            lookupTimeoutNanos,
+            traversalTimeoutNanos,
+            listener
+        );
+    }
+
+    TraversalSettings withLookupTimeout(long timeout, TimeUnit unit) {
+
+        return new TraversalSettings(
+            executor,
+            toNanos(timeout, unit),
+            traversalTimeoutNanos,
+            listener
+        );
+    }
+
+    TraversalSettings withTraversalTimeout(long timeout, TimeUnit unit) {
+
+        return new TraversalSettings(
+            executor,
+            lookupTimeoutNanos,
+            toNanos(timeout, unit),
+            listener
+        );
+    }
+
+    TraversalSettings withListener(JndiTraversalListener listener) {
+
+        return new TraversalSettings(
+            executor,
+            lookupTimeoutNanos,
+            traversalTimeoutNanos,
+            checkNotNull(listener)
+        );
+    }
+
+    private static long toNanos(long timeout, TimeUnit unit) {
+
+        checkNotNull(unit);
+
+        if (timeout < 0) {
+            throw new IllegalArgumentException(
+                "Negative timeout: " + timeout);
+        }
+
+        return unit.toNanos(timeout);
+    }
+
+    /**
+     * @return {@code null} if lookups are made on the calling thread.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    /**
+     * @return {@link #NO_TIMEOUT} if lookups may take as long as they
+     *   need to.
+     */
+    long lookupTimeoutNanos() {
+        return lookupTimeoutNanos;
+    }
+
+    /**
+     * @return {@link #NO_TIMEOUT} if the whole traversal may take as
+     *   long as it needs to.
+     */
+    long traversalTimeoutNanos() {
+        return traversalTimeoutNanos;
+    }
+
+    JndiTraversalListener listener() {
+        return listener;
+    }
+}
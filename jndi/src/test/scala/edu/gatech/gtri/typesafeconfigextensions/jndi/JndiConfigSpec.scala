@@ -58,6 +58,183 @@ class JndiConfigSpec extends Specification {
         "question: unknown, answer: 42".toConfig )
     }
 
+    "traversal with listBindings" >> {
+
+      class CountingContext(supportsListBindings: Boolean) extends Context {
+        val lookups = new java.util.concurrent.atomic.AtomicInteger
+        override def lookup(name: String): Object = { lookups.incrementAndGet(); super.lookup(name) }
+        override def listBindings(name: String): javax.naming.NamingEnumeration[javax.naming.Binding] =
+          if (supportsListBindings) super.listBindings(name).asInstanceOf[javax.naming.NamingEnumeration[javax.naming.Binding]]
+          else throw new javax.naming.OperationNotSupportedException
+      }
+
+      def counting(supportsListBindings: Boolean) = {
+        val context = new CountingContext(supportsListBindings)
+        context.bind("magicword", "xyzzy")
+        context.bind("ultimate", Context("question" -> "unknown", "answer" -> "42"))
+        context
+      }
+
+      val expected = "magicword: xyzzy, ultimate { question: unknown, answer: 42 }".toConfig
+
+      "reads each entry without looking it up" ! {
+        val context = counting(supportsListBindings = true)
+        (context.withTraversal(JndiTraversal.LIST_BINDINGS).toConfig shouldEqual expected) and
+          (context.lookups.get shouldEqual 0)
+      }
+
+      "falls back to lookups if the provider doesn't support it" ! {
+        val context = counting(supportsListBindings = false)
+        (context.withTraversal(JndiTraversal.LIST_BINDINGS).toConfig shouldEqual expected) and
+          (context.lookups.get shouldEqual 2)
+      }
+
+      "applies the lookup filter to each binding's class name" >> {
+
+        // As a provider would list a Reference whose declared class is not a config type.
+        val context = new Context {
+          override def listBindings(name: String): javax.naming.NamingEnumeration[javax.naming.Binding] = {
+            val bindings = Iterator(
+              new javax.naming.Binding("magicword", "java.lang.String", "xyzzy"),
+              new javax.naming.Binding("pool", "java.util.Date", "example"))
+            new javax.naming.NamingEnumeration[javax.naming.Binding] {
+              def hasMore = bindings.hasNext
+              def next = bindings.next()
+              def hasMoreElements = hasMore
+              def nextElement = next
+              def close() { }
+            }
+          }
+        }.withTraversal(JndiTraversal.LIST_BINDINGS)
+
+        "leaving out classes it doesn't allow" ! ( context.toConfig shouldEqual "magicword: xyzzy".toConfig )
+
+        "keeping classes it allows" ! (
+          context.withLookupFilter(JndiLookupFilter.configTypes.andClassNames("java.util.Date"))
+            .toConfig shouldEqual "magicword: xyzzy, pool: example".toConfig )
+      }
+    }
+
+    "lookup filter" >> {
+
+      class CountingContext extends Context {
+        val lookups = new java.util.concurrent.atomic.AtomicInteger
+        override def lookup(name: String): Object = { lookups.incrementAndGet(); super.lookup(name) }
+      }
+
+      def counting = {
+        val context = new CountingContext
+        context.bind("magicword", "xyzzy")
+        context.bind("ultimate", Context("answer" -> "42"))
+        context.bind("created", new java.util.Date)
+        context
+      }
+
+      val expected = "magicword: xyzzy, ultimate { answer: 42 }".toConfig
+
+      "doesn't look up names that can't become config values" ! {
+        val context = counting
+        (context.toConfig shouldEqual expected) and (context.lookups.get shouldEqual 2)
+      }
+
+      "looks up every name with allTypes" ! {
+        val context = counting
+        (context.withLookupFilter(JndiLookupFilter.allTypes).toConfig shouldEqual expected) and
+          (context.lookups.get shouldEqual 3)
+      }
+
+      "looks up names of additional classes" ! {
+        val context = counting
+        val filter = JndiLookupFilter.configTypes.andClassNames("java.util.Date")
+        (context.withLookupFilter(filter).toConfig shouldEqual expected) and
+          (context.lookups.get shouldEqual 3)
+      }
+    }
+
+    "traversal on an executor" >> {
+
+      class SlowContext(slowNames: Set[String], delayMillis: Long) extends Context {
+        override def lookup(name: String): Object = {
+          if (slowNames contains name) Thread.sleep(delayMillis)
+          super.lookup(name)
+        }
+      }
+
+      class RecordingListener extends JndiTraversalListener {
+        val skipped = new java.util.concurrent.ConcurrentLinkedQueue[(String, Exception)]
+        override def skipped(name: String, cause: Exception) { skipped.add((name, cause)) }
+      }
+
+      def withExecutor[A](f: java.util.concurrent.ExecutorService => A): A = {
+        val executor = java.util.concurrent.Executors.newFixedThreadPool(1)
+        try f(executor) finally executor.shutdownNow()
+      }
+
+      "gives the same Config as a sequential traversal, even with one thread" ! {
+        val context = Context(
+          "magicword" -> "xyzzy",
+          "ultimate" -> Context("question" -> "unknown", "answer" -> "42"),
+          "empty" -> new Context
+        )
+        withExecutor { executor =>
+          context.withExecutor(executor).toConfig shouldEqual context.toConfig
+        }
+      }
+
+      "leaves out lookups that time out" ! {
+        val context = new SlowContext(Set("slow"), 5000)
+        context.bind("slow", "a")
+        context.bind("fast", "b")
+        val listener = new RecordingListener
+        val config = withExecutor { executor =>
+          context.withExecutor(executor)
+            .withLookupTimeout(100, java.util.concurrent.TimeUnit.MILLISECONDS)
+            .withTraversalListener(listener).toConfig
+        }
+        (config shouldEqual "fast: b".toConfig) and
+          (listener.skipped.size shouldEqual 1) and
+          (listener.skipped.peek._1 shouldEqual "slow") and
+          (listener.skipped.peek._2 must beAnInstanceOf[java.util.concurrent.TimeoutException])
+      }
+
+      "times each lookup from when it starts, not from when it is queued" ! {
+        val names = (1 to 50).map("n" + _)
+        val context = new SlowContext(names.toSet, 20)
+        names.foreach(name => context.bind(name, name))
+        val listener = new RecordingListener
+        val config = withExecutor { executor =>
+          context.withExecutor(executor)
+            .withLookupTimeout(200, java.util.concurrent.TimeUnit.MILLISECONDS)
+            .withTraversalListener(listener).toConfig
+        }
+        (config.root.size shouldEqual 50) and (listener.skipped.size shouldEqual 0)
+      }
+
+      "stops making lookups once the traversal times out" ! {
+        val context = new SlowContext(Set("a", "b"), 200)
+        context.bind("a", "1")
+        context.bind("b", "2")
+        val listener = new RecordingListener
+        val config = context
+          .withTraversalTimeout(100, java.util.concurrent.TimeUnit.MILLISECONDS)
+          .withTraversalListener(listener).toConfig
+        (config.root.size shouldEqual 1) and (listener.skipped.size shouldEqual 1)
+      }
+    }
+
+    "conversion of boxed primitives" ! {
+
+      val context = Context(
+        "port" -> Integer.valueOf(8080),
+        "enabled" -> java.lang.Boolean.TRUE,
+        "size" -> java.lang.Long.valueOf(5000000000L),
+        "ratio" -> java.lang.Double.valueOf(0.5)
+      )
+
+      context.toConfig shouldEqual
+        "port: 8080, enabled: true, size: 5000000000, ratio: 0.5".toConfig
+    }
+
     "parse config references without immediately resolving them" ! {
 
       val context = Context("a" -> "${b}")
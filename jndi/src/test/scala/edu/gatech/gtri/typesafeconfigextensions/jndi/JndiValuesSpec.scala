@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 Georgia Tech Applied Research Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.gatech.gtri.typesafeconfigextensions.jndi
+
+import org.specs2.mutable._
+import com.typesafe.config.{ConfigFactory, ConfigParseOptions, ConfigValue}
+
+class JndiValuesSpec extends Specification {
+
+  val options = ConfigParseOptions.defaults.setOriginDescription("JNDI")
+
+  def converted(value: Object): ConfigValue =
+    JndiValues.configValue(value, options).get
+
+  def parsed(string: String): ConfigValue =
+    ConfigFactory.parseString("value: " + string, options).root.get("value")
+
+  "JndiValues" >> {
+
+    val plainStrings = Seq("true", "false", "0", "42", "-7", "5000000000", "1.5", "-2.5",
+      "xyzzy", "a.b", "a-b_c", "/etc/exampleApp", "trueish", "nullx")
+
+    "plain strings are converted without parsing" ! forall(plainStrings) { string =>
+      JndiValues.plainValue(string) must not beNull
+    }
+
+    "plain strings are converted to the value that parsing gives" ! forall(plainStrings) { string =>
+      (converted(string) shouldEqual parsed(string)) and
+        (converted(string).render shouldEqual parsed(string).render) and
+        (converted(string).origin.description shouldEqual parsed(string).origin.description)
+    }
+
+    "anything else is parsed" ! forall(Seq("", "null", "-0.25", "1.50", "1e5", "007", "-0",
+        "99999999999999999999", "a b", "a//b", "[1, 2]", "{ x: y }", "${a}", "\"quoted\"", "a: b")) {
+      string => JndiValues.plainValue(string) must beNull
+    }
+
+    "strings that aren't HOCON values are left out" ! {
+      JndiValues.configValue("{", options).isSome must beFalse
+    }
+
+    "boxed primitives" >> {
+
+      "Integer" ! { converted(Integer.valueOf(8080)).unwrapped shouldEqual 8080 }
+      "Long"    ! { converted(java.lang.Long.valueOf(5000000000L)).unwrapped shouldEqual 5000000000L }
+      "Double"  ! { converted(java.lang.Double.valueOf(0.5)).unwrapped shouldEqual 0.5 }
+      "Boolean" ! { converted(java.lang.Boolean.TRUE).unwrapped shouldEqual true }
+      "Character" ! { converted(java.lang.Character.valueOf('x')).unwrapped shouldEqual "x" }
+    }
+
+    "other objects are left out" ! {
+      JndiValues.configValue(new java.util.Date, options).isSome must beFalse
+    }
+  }
+}
@@ -39,7 +39,8 @@ object Build extends Build {
         |Code common to various typesafeconfig-extensions projects.
         |Other projects should not use this project directly, and
         |it should not be considered part of the public API.
-      """.stripMargin.trim
+      """.stripMargin.trim,
+      libraryDependencies += typesafeConfig
     ): _*)
   )
 
@@ -84,6 +85,7 @@ object Build extends Build {
 
   lazy val forScala: Project = (
     Project("for-scala", file("for-scala"))
+    dependsOn(internal)
     settings(baseSettings ++ published ++ Seq(
       name := "typesafeconfig-for-scala",
       description := """